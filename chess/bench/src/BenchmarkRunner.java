@@ -0,0 +1,144 @@
+import java.lang.management.ManagementFactory;
+import java.util.regex.Pattern;
+
+/**
+ * A small benchmark harness in the style of JMH. Each benchmark is run for a number of
+ * warmup iterations, so that the JIT compiles it, and then for a number of measured
+ * iterations. It reports the mean time per operation with its standard deviation, and
+ * the bytes allocated per operation measured from the allocation counter of the thread.
+ * <p>
+ * Every result an operation returns is folded into a volatile field, so the JIT cannot
+ * remove the work as dead code.
+ */
+public class BenchmarkRunner {
+    /**
+     * A benchmarked operation.
+     */
+    public interface Operation {
+        /**
+         * Runs the operation once.
+         *
+         * @param index the number of the call, for cycling through inputs
+         * @return any value derived from the work done, to keep it from being optimised away
+         */
+        long run(int index);
+    }
+
+    // Where the results of operations are consumed.
+    private static volatile long sink;
+
+    // The thread allocation counter, or null if the JVM does not provide one.
+    private final com.sun.management.ThreadMXBean threads;
+    // The benchmarks to run, matched against their names.
+    private final Pattern filter;
+    // The number of warmup and measured iterations.
+    private final int warmupIterations;
+    private final int measuredIterations;
+    // The time each iteration runs for, in nanoseconds.
+    private final long iterationNanos;
+
+    /**
+     * Constructs a runner.
+     *
+     * @param filter             a regular expression selecting the benchmarks to run by name
+     * @param warmupIterations   the number of warmup iterations
+     * @param measuredIterations the number of measured iterations
+     * @param iterationMillis    the time each iteration runs for, in milliseconds
+     */
+    public BenchmarkRunner(String filter, int warmupIterations, int measuredIterations, int iterationMillis) {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        this.threads = bean instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) bean : null;
+        this.filter = Pattern.compile(filter);
+        this.warmupIterations = warmupIterations;
+        this.measuredIterations = measuredIterations;
+        this.iterationNanos = iterationMillis * 1_000_000L;
+    }
+
+    /**
+     * Prints the header of the result table.
+     */
+    public void printHeader() {
+        System.out.printf("%-40s %14s %12s %12s%n", "Benchmark", "ns/op", "error", "B/op");
+    }
+
+    /**
+     * Runs a benchmark if its name matches the filter, and prints its results.
+     *
+     * @param name      the name of the benchmark
+     * @param operation the operation to measure
+     */
+    public void run(String name, Operation operation) {
+        if (!filter.matcher(name).find()) {
+            return;
+        }
+
+        // Find how many calls fill one iteration, running the first warmup iteration meanwhile.
+        int batch = 1;
+        long start = System.nanoTime();
+        int index = 0;
+        while (System.nanoTime() - start < iterationNanos) {
+            for (int i = 0; i < batch; i++) {
+                sink += operation.run(index++ & Integer.MAX_VALUE);
+            }
+            batch *= 2;
+        }
+        batch = Math.max(1, (int) Math.min(Integer.MAX_VALUE, (long) index * iterationNanos / (System.nanoTime() - start)));
+
+        for (int iteration = 1; iteration < warmupIterations; iteration++) {
+            index = runBatch(operation, index, batch);
+        }
+
+        double[] nanosPerOp = new double[measuredIterations];
+        long allocated = 0;
+        long thread = Thread.currentThread().getId();
+        for (int iteration = 0; iteration < measuredIterations; iteration++) {
+            long bytesBefore = allocatedBytes(thread);
+            long before = System.nanoTime();
+            index = runBatch(operation, index, batch);
+            nanosPerOp[iteration] = (double) (System.nanoTime() - before) / batch;
+            allocated += allocatedBytes(thread) - bytesBefore;
+        }
+
+        double mean = 0;
+        for (double value : nanosPerOp) {
+            mean += value;
+        }
+        mean /= measuredIterations;
+        double variance = 0;
+        for (double value : nanosPerOp) {
+            variance += (value - mean) * (value - mean);
+        }
+        double error = measuredIterations > 1 ? Math.sqrt(variance / (measuredIterations - 1)) : 0;
+        String bytesPerOp = threads == null ? "n/a"
+                : String.format("%.1f", (double) allocated / ((long) batch * measuredIterations));
+
+        System.out.printf("%-40s %14.1f %12.1f %12s%n", name, mean, error, bytesPerOp);
+    }
+
+    /**
+     * Runs an operation a number of times.
+     *
+     * @param operation the operation to run
+     * @param index     the number of the first call
+     * @param batch     the number of calls
+     * @return the number of the next call
+     */
+    private static int runBatch(Operation operation, int index, int batch) {
+        long result = 0;
+        for (int i = 0; i < batch; i++) {
+            result += operation.run(index++ & Integer.MAX_VALUE);
+        }
+        sink += result;
+        return index;
+    }
+
+    /**
+     * Returns the number of bytes a thread has allocated so far.
+     *
+     * @param thread the id of the thread
+     * @return the allocated bytes, or 0 if the JVM does not count them
+     */
+    private long allocatedBytes(long thread) {
+        return threads == null ? 0 : threads.getThreadAllocatedBytes(thread);
+    }
+}
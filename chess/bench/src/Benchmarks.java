@@ -0,0 +1,163 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmarks of the piece rules and board operations, run over a corpus of midgame positions.
+ * Usage: Benchmarks [filter] [warmup iterations] [measured iterations] [milliseconds per iteration]
+ * <p>
+ * Run with -Djava.awt.headless=true so that Chess.move is measured without opening a window.
+ */
+public class Benchmarks {
+    // The number of positions in the corpus.
+    private static final int POSITIONS = 32;
+    // The piece classes benchmarked, in the order of their type constants.
+    private static final String[] PIECE_NAMES = {"", "Pawn", "Knight", "Bishop", "Rook", "Queen", "King"};
+
+    private Benchmarks() {
+    }
+
+    /**
+     * Runs the benchmarks whose names match the filter.
+     *
+     * @param args command line arguments
+     */
+    public static void main(String[] args) {
+        String filter = args.length > 0 ? args[0] : ".*";
+        int warmup = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int measured = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int millis = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+        BenchmarkRunner runner = new BenchmarkRunner(filter, warmup, measured, millis);
+
+        Player white = new Player(java.awt.Color.RED);
+        Player black = new Player(java.awt.Color.BLUE);
+        List<Position> positions = MidgamePositions.create(POSITIONS);
+        List<Board> boards = new ArrayList<>();
+        for (Position position : positions) {
+            boards.add(MidgamePositions.toBoard(position, white, black));
+        }
+
+        runner.printHeader();
+        for (int type = Position.PAWN; type <= Position.KING; type++) {
+            benchmarkPiece(runner, boards, type);
+        }
+        benchmarkBoard(runner, boards);
+        benchmarkChessMove(runner);
+        benchmarkPositionNotation(runner, positions);
+    }
+
+    /**
+     * Benchmarks validMove and getPossibleMoves of one piece class.
+     *
+     * @param runner the benchmark runner
+     * @param boards the boards of the corpus
+     * @param type   the piece type
+     */
+    private static void benchmarkPiece(BenchmarkRunner runner, List<Board> boards, int type) {
+        List<Board> pieceBoards = new ArrayList<>();
+        List<Piece> pieces = new ArrayList<>();
+        for (Board board : boards) {
+            for (int cell = 0; cell < Position.CELLS; cell++) {
+                Piece piece = board.getSquareAt(cell).getPiece();
+                if (piece != null && piece.getType() == type) {
+                    pieceBoards.add(board);
+                    pieces.add(piece);
+                }
+            }
+        }
+        if (pieces.isEmpty()) {
+            return;
+        }
+        Board[] boardArray = pieceBoards.toArray(new Board[0]);
+        Piece[] pieceArray = pieces.toArray(new Piece[0]);
+        int count = pieceArray.length;
+
+        // Every piece is tried against every square of its board.
+        runner.run(PIECE_NAMES[type] + ".validMove", index -> {
+            int piece = (index / Position.CELLS) % count;
+            Board board = boardArray[piece];
+            return pieceArray[piece].validMove(board.getSquareAt(index % Position.CELLS), board) ? 1 : 0;
+        });
+        runner.run(PIECE_NAMES[type] + ".getPossibleMoves", index -> {
+            int piece = index % count;
+            return pieceArray[piece].getPossibleMoves(boardArray[piece]).size();
+        });
+    }
+
+    /**
+     * Benchmarks the square lookup and highlight clearing of the board.
+     *
+     * @param runner the benchmark runner
+     * @param boards the boards of the corpus
+     */
+    private static void benchmarkBoard(BenchmarkRunner runner, List<Board> boards) {
+        Board board = boards.get(0);
+        runner.run("Board.getSquareAt", index -> {
+            int cell = index % Position.CELLS;
+            return board.getSquareAt(Position.levelOf(cell), Position.rowOf(cell), Position.colOf(cell)).getCol();
+        });
+
+        // Highlight the moves of one piece, as a click does, before clearing.
+        Piece piece = null;
+        for (int cell = 0; cell < Position.CELLS && piece == null; cell++) {
+            Piece candidate = board.getSquareAt(cell).getPiece();
+            if (candidate != null && candidate.getType() == Position.QUEEN) {
+                piece = candidate;
+            }
+        }
+        List<Square> highlights = piece == null ? new ArrayList<>() : piece.getPossibleMoves(board);
+        runner.run("Board.clearHighlights", index -> {
+            board.highlight(highlights);
+            board.clearHighlights();
+            return highlights.size();
+        });
+    }
+
+    /**
+     * Benchmarks Chess.move by moving a knight out and back again in a game without a window.
+     * The position forgets the moves after each round trip, so the game never ends by
+     * repetition or the fifty move rule and every call measures an ordinary move.
+     *
+     * @param runner the benchmark runner
+     */
+    private static void benchmarkChessMove(BenchmarkRunner runner) {
+        Chess game = new Chess();
+        Board board = game.getBoard();
+        Square[] squares = {
+                board.getSquareAt(Position.cell(0, 7, 2)), board.getSquareAt(Position.cell(1, 6, 3)),
+                board.getSquareAt(Position.cell(0, 0, 2)), board.getSquareAt(Position.cell(1, 1, 3))
+        };
+        // White and black each move a knight up a level and then back, so the board repeats every 4 moves.
+        int[][] moves = {{0, 1}, {2, 3}, {1, 0}, {3, 2}};
+        runner.run("Chess.move", index -> {
+            int[] move = moves[index % moves.length];
+            game.move(squares[move[0]], squares[move[1]]);
+            if (index % moves.length == moves.length - 1) {
+                // The pieces are back where they started, so only the history is reset.
+                board.getPosition().setupInitial();
+            }
+            return move[1];
+        });
+    }
+
+    /**
+     * Benchmarks writing and reading the text of positions, in bytes as a corpus file holds them.
+     *
+     * @param runner    the benchmark runner
+     * @param positions the positions of the corpus
+     */
+    private static void benchmarkPositionNotation(BenchmarkRunner runner, List<Position> positions) {
+        byte[][] texts = new byte[positions.size()][];
+        for (int i = 0; i < texts.length; i++) {
+            texts[i] = PositionNotation.toText(positions.get(i)).getBytes(java.nio.charset.StandardCharsets.US_ASCII);
+        }
+        byte[] buffer = new byte[PositionNotation.MAX_LENGTH];
+        runner.run("PositionNotation.write", index ->
+                PositionNotation.write(positions.get(index % positions.size()), buffer, 0));
+
+        Position position = new Position();
+        runner.run("PositionNotation.read", index -> {
+            byte[] text = texts[index % texts.length];
+            return PositionNotation.read(text, 0, text.length, position);
+        });
+    }
+}
@@ -0,0 +1,109 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A reproducible corpus of midgame positions for the benchmarks. Each position comes from
+ * a game the engine plays against itself from the initial position: the first moves are
+ * chosen at random from a fixed seed so that the games differ, and the rest by a shallow
+ * search, so the positions look like real play rather than random placements.
+ */
+public class MidgamePositions {
+    // The seed of the random opening moves. Changing it changes every benchmark input.
+    private static final long SEED = 20231015L;
+    // The number of random moves at the start of each game.
+    private static final int RANDOM_PLIES = 6;
+    // The depth of the search choosing the other moves.
+    private static final int SEARCH_DEPTH = 2;
+    // The earliest ply a position is taken at.
+    private static final int FIRST_PLY = 20;
+
+    private MidgamePositions() {
+    }
+
+    /**
+     * Creates the corpus.
+     *
+     * @param count the number of positions
+     * @return the positions, in the same order on every run
+     */
+    public static List<Position> create(int count) {
+        Random random = new Random(SEED);
+        Search search = new Search(new TranspositionTable(16));
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        List<Position> positions = new ArrayList<>();
+
+        for (int game = 0; positions.size() < count; game++) {
+            Position position = Position.initial();
+            int plies = FIRST_PLY + game % 10;
+            for (int ply = 0; ply < plies; ply++) {
+                int move;
+                if (ply < RANDOM_PLIES) {
+                    int moveCount = MoveGenerator.generateMoves(position, moves, 0);
+                    move = moveCount == 0 ? Move.NONE : moves[random.nextInt(moveCount)];
+                } else {
+                    move = search.search(position, SEARCH_DEPTH);
+                }
+                if (move == Move.NONE) {
+                    break;
+                }
+                position.makeMove(move);
+            }
+            if (position.hasKing(Position.WHITE) && position.hasKing(Position.BLACK)) {
+                positions.add(position);
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Creates a board showing a position, with a piece object on every occupied square.
+     *
+     * @param position the position to show
+     * @param white    the white player
+     * @param black    the black player
+     * @return the board
+     */
+    public static Board toBoard(Position position, Player white, Player black) {
+        Board board = new Board(null);
+        for (int cell = 0; cell < Position.CELLS; cell++) {
+            byte code = position.get(cell);
+            if (code == Position.EMPTY) {
+                continue;
+            }
+            Player owner = Position.colourOf(code) == Position.WHITE ? white : black;
+            Piece piece = createPiece(Position.typeOf(code), owner);
+            Square square = board.getSquareAt(cell);
+            square.setPiece(piece);
+            piece.setSquare(square);
+            board.getPosition().set(cell, code);
+        }
+        board.getPosition().setSideToMove(position.getSideToMove());
+        return board;
+    }
+
+    /**
+     * Creates a piece object of a type.
+     *
+     * @param type  the piece type
+     * @param owner the player who owns the piece
+     * @return the piece
+     */
+    private static Piece createPiece(int type, Player owner) {
+        String image = String.valueOf(Position.symbolOf(type));
+        switch (type) {
+            case Position.PAWN:
+                return new Pawn(owner, image);
+            case Position.KNIGHT:
+                return new Knight(owner, image);
+            case Position.BISHOP:
+                return new Bishop(owner, image);
+            case Position.ROOK:
+                return new Rook(owner, image);
+            case Position.QUEEN:
+                return new Queen(owner, image);
+            default:
+                return new King(owner, image);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/**
+ * Precomputed attack masks for the knight, king and pawns on the 3 level board.
+ * Each cell has one 64-bit mask per level, in the same layout as the bitboards
+ * of a Position, so that a move or attack test is a single bitwise operation.
+ */
+public class Attacks {
+    // Offsets of the knight moves as {level, row, col}: an L on the same level,
+    // or a two square step or a one square diagonal combined with a level change.
+    private static final int[][] KNIGHT_OFFSETS = {
+            {0, -2, -1}, {0, -2, 1}, {0, 2, -1}, {0, 2, 1},
+            {0, -1, -2}, {0, -1, 2}, {0, 1, -2}, {0, 1, 2},
+            {-1, -2, 0}, {-1, 2, 0}, {-1, 0, -2}, {-1, 0, 2},
+            {1, -2, 0}, {1, 2, 0}, {1, 0, -2}, {1, 0, 2},
+            {-1, -1, -1}, {-1, -1, 1}, {-1, 1, -1}, {-1, 1, 1},
+            {1, -1, -1}, {1, -1, 1}, {1, 1, -1}, {1, 1, 1}
+    };
+
+    // Knight attack masks, indexed by cell * LEVELS + target level.
+    private static final long[] KNIGHT = new long[Position.CELLS * Position.LEVELS];
+    // King attack masks, indexed by cell * LEVELS + target level.
+    private static final long[] KING = new long[Position.CELLS * Position.LEVELS];
+    // Pawn capture masks of each colour, indexed by colour * CELLS * LEVELS + cell * LEVELS + target level.
+    private static final long[] PAWN = new long[2 * Position.CELLS * Position.LEVELS];
+    // The cells from which a pawn of each colour captures on a cell, in the same layout as PAWN.
+    private static final long[] PAWN_ATTACKERS = new long[2 * Position.CELLS * Position.LEVELS];
+
+    static {
+        for (int cell = 0; cell < Position.CELLS; cell++) {
+            int level = Position.levelOf(cell);
+            int row = Position.rowOf(cell);
+            int col = Position.colOf(cell);
+
+            for (int[] offset : KNIGHT_OFFSETS) {
+                addTarget(KNIGHT, cell, level + offset[0], row + offset[1], col + offset[2]);
+            }
+
+            // The king steps one square in any of the 26 directions.
+            for (int levelStep = -1; levelStep <= 1; levelStep++) {
+                for (int rowStep = -1; rowStep <= 1; rowStep++) {
+                    for (int colStep = -1; colStep <= 1; colStep++) {
+                        if (levelStep != 0 || rowStep != 0 || colStep != 0) {
+                            addTarget(KING, cell, level + levelStep, row + rowStep, col + colStep);
+                        }
+                    }
+                }
+            }
+
+            // A pawn captures one column to the side, one row forward on its level,
+            // or on the middle level from the bottom or top level.
+            for (int colour = Position.WHITE; colour <= Position.BLACK; colour++) {
+                int forward = row + (colour == Position.WHITE ? -1 : 1);
+                int base = colour * Position.CELLS;
+                for (int side = -1; side <= 1; side += 2) {
+                    addPawnTarget(base, cell, level, forward, col + side);
+                    if (level != 1) {
+                        addPawnTarget(base, cell, 1, row, col + side);
+                    }
+                }
+            }
+        }
+    }
+
+    private Attacks() {
+    }
+
+    /**
+     * Adds a target to the attack mask of a cell if the target lies on the board.
+     *
+     * @param table the attack table to update
+     * @param cell  the cell the piece stands on
+     * @param level the level of the target
+     * @param row   the row of the target
+     * @param col   the column of the target
+     */
+    private static void addTarget(long[] table, int cell, int level, int row, int col) {
+        if (Position.onBoard(level, row, col)) {
+            table[cell * Position.LEVELS + level] |= bit(Position.cell(level, row, col));
+        }
+    }
+
+    /**
+     * Adds a target to the pawn capture mask of a cell, and the cell to the attacker
+     * mask of the target, if the target lies on the board.
+     *
+     * @param base  the offset of the pawn colour in cells, colour * CELLS
+     * @param cell  the cell the pawn stands on
+     * @param level the level of the target
+     * @param row   the row of the target
+     * @param col   the column of the target
+     */
+    private static void addPawnTarget(int base, int cell, int level, int row, int col) {
+        if (Position.onBoard(level, row, col)) {
+            int target = Position.cell(level, row, col);
+            PAWN[(base + cell) * Position.LEVELS + level] |= bit(target);
+            PAWN_ATTACKERS[(base + target) * Position.LEVELS + Position.levelOf(cell)] |= bit(cell);
+        }
+    }
+
+    /**
+     * Returns the bit of a cell within the bitboard of its level.
+     *
+     * @param cell the cell index
+     * @return a mask with only the bit of the cell set
+     */
+    public static long bit(int cell) {
+        return 1L << (cell & 63);
+    }
+
+    /**
+     * Returns the cells on one level attacked by a knight.
+     *
+     * @param cell  the cell the knight stands on
+     * @param level the level of the targets
+     * @return the mask of attacked cells on the level
+     */
+    public static long knight(int cell, int level) {
+        return KNIGHT[cell * Position.LEVELS + level];
+    }
+
+    /**
+     * Returns the cells on one level attacked by a king.
+     *
+     * @param cell  the cell the king stands on
+     * @param level the level of the targets
+     * @return the mask of attacked cells on the level
+     */
+    public static long king(int cell, int level) {
+        return KING[cell * Position.LEVELS + level];
+    }
+
+    /**
+     * Returns the cells on one level a pawn captures on.
+     *
+     * @param colour the colour of the pawn
+     * @param cell   the cell the pawn stands on
+     * @param level  the level of the targets
+     * @return the mask of attacked cells on the level
+     */
+    public static long pawn(int colour, int cell, int level) {
+        return PAWN[(colour * Position.CELLS + cell) * Position.LEVELS + level];
+    }
+
+    /**
+     * Returns the cells on one level from which a pawn captures on a cell.
+     *
+     * @param colour the colour of the pawns
+     * @param cell   the cell captured on
+     * @param level  the level of the pawns
+     * @return the mask of cells on the level from which a pawn of the colour attacks the cell
+     */
+    public static long pawnAttackers(int colour, int cell, int level) {
+        return PAWN_ATTACKERS[(colour * Position.CELLS + cell) * Position.LEVELS + level];
+    }
+
+    /**
+     * Checks if a knight on one cell attacks another cell.
+     *
+     * @param from the cell the knight stands on
+     * @param to   the target cell
+     * @return true if the target is a knight move away, false otherwise
+     */
+    public static boolean knightAttacks(int from, int to) {
+        return (knight(from, Position.levelOf(to)) & bit(to)) != 0;
+    }
+
+    /**
+     * Checks if a king on one cell attacks another cell.
+     *
+     * @param from the cell the king stands on
+     * @param to   the target cell
+     * @return true if the target is a king step away, false otherwise
+     */
+    public static boolean kingAttacks(int from, int to) {
+        return (king(from, Position.levelOf(to)) & bit(to)) != 0;
+    }
+}
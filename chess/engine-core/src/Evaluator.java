@@ -0,0 +1,153 @@
+/**
+ * Scores a headless Position for the search. Scores are in centipawns from the
+ * point of view of the side to move, so a positive score favours that side.
+ * <p>
+ * A piece scores its material value plus a piece-square bonus for the cell it stands on.
+ * On the 3 level board a cell matters through how much of the board a piece reaches
+ * from it: the middle level touches both others, and the centre of a level reaches
+ * further than its edge, by different amounts for each piece. So the bonus of a knight,
+ * bishop or queen grows with the number of cells it would attack from the cell
+ * on an empty board. The king prefers cells it can be attacked from less, and pawns
+ * gain for each row they advance.
+ * <p>
+ * The piece-square scores of every piece code on every cell are precomputed, and each
+ * Position keeps their sum up to date as cells change, so evaluation is O(1).
+ */
+public class Evaluator {
+    // The material value of each piece type, indexed by type. The king is not counted,
+    // as it is never captured.
+    private static final int[] VALUES = {0, 100, 320, 330, 500, 900, 0};
+    // The bonus for each cell a piece would attack on an empty board beyond the average
+    // of its type, indexed by type. A rook reaches 16 cells from every cell, so it has no
+    // bonus, and the king is penalised for being exposed.
+    private static final int[] REACH_WEIGHTS = {0, 0, 4, 3, 0, 1, -3};
+    // The bonus of a pawn for each row it has advanced from its starting row.
+    private static final int PAWN_ADVANCE = 6;
+    // The bonus of a pawn on one of the four central columns.
+    private static final int PAWN_CENTRE = 8;
+
+    // The material and piece-square score of each piece code on each cell, from white's
+    // point of view, indexed by code * CELLS + cell. EMPTY scores 0 everywhere.
+    private static final int[] SCORES = new int[16 * Position.CELLS];
+
+    static {
+        for (int type = Position.PAWN; type <= Position.KING; type++) {
+            int[] reach = new int[Position.CELLS];
+            int total = 0;
+            for (int cell = 0; cell < Position.CELLS; cell++) {
+                reach[cell] = reach(type, cell);
+                total += reach[cell];
+            }
+            int average = total / Position.CELLS;
+
+            for (int cell = 0; cell < Position.CELLS; cell++) {
+                int bonus = REACH_WEIGHTS[type] * (reach[cell] - average);
+                if (type == Position.PAWN) {
+                    bonus += PAWN_ADVANCE * Math.max(0, 6 - Position.rowOf(cell));
+                    int col = Position.colOf(cell);
+                    bonus += col >= 2 && col <= 5 ? PAWN_CENTRE : 0;
+                }
+                int white = VALUES[type] + bonus;
+                // Black uses the same table with the rows mirrored, as it moves the other way.
+                int mirrored = Position.cell(Position.levelOf(cell), Position.ROWS - 1 - Position.rowOf(cell),
+                        Position.colOf(cell));
+                SCORES[Position.piece(type, Position.WHITE) * Position.CELLS + cell] = white;
+                SCORES[Position.piece(type, Position.BLACK) * Position.CELLS + mirrored] = -white;
+            }
+        }
+    }
+
+    private Evaluator() {
+    }
+
+    /**
+     * Counts the cells a piece would attack from a cell on an empty board.
+     *
+     * @param type the piece type
+     * @param cell the cell the piece stands on
+     * @return the number of attacked cells
+     */
+    private static int reach(int type, int cell) {
+        int count = 0;
+        switch (type) {
+            case Position.KNIGHT:
+            case Position.KING:
+                for (int level = 0; level < Position.LEVELS; level++) {
+                    count += Long.bitCount(type == Position.KNIGHT ? Attacks.knight(cell, level) : Attacks.king(cell, level));
+                }
+                return count;
+            case Position.BISHOP:
+                return rayCells(cell, Rays.BISHOP_FIRST, Rays.BISHOP_LAST);
+            case Position.ROOK:
+                return rayCells(cell, Rays.ROOK_FIRST, Rays.ROOK_LAST);
+            case Position.QUEEN:
+                return rayCells(cell, Rays.QUEEN_FIRST, Rays.QUEEN_LAST);
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Counts the cells on a range of rays from a cell.
+     *
+     * @param cell           the origin cell
+     * @param firstDirection the first ray direction
+     * @param lastDirection  the end of the range of ray directions, exclusive
+     * @return the total length of the rays
+     */
+    private static int rayCells(int cell, int firstDirection, int lastDirection) {
+        int count = 0;
+        for (int direction = firstDirection; direction < lastDirection; direction++) {
+            count += Rays.length(cell, direction);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the material value of a piece type.
+     *
+     * @param type the piece type
+     * @return the value in centipawns
+     */
+    public static int value(int type) {
+        return VALUES[type];
+    }
+
+    /**
+     * Returns the material and piece-square score of a piece code on a cell.
+     *
+     * @param piece the piece code, where EMPTY scores 0
+     * @param cell  the cell index
+     * @return the score in centipawns from white's point of view
+     */
+    public static int pieceSquare(int piece, int cell) {
+        return SCORES[piece * Position.CELLS + cell];
+    }
+
+    /**
+     * Scores a position from the score it keeps up to date.
+     *
+     * @param position the position to score
+     * @return the score in centipawns for the side to move
+     */
+    public static int evaluate(Position position) {
+        int score = position.getScore();
+        return position.getSideToMove() == Position.WHITE ? score : -score;
+    }
+
+    /**
+     * Computes the score of a position from scratch, from white's point of view. Positions
+     * keep their score up to date themselves; this is for checking that incremental updates
+     * are correct.
+     *
+     * @param position the position to score
+     * @return the sum of the piece-square scores of every piece
+     */
+    public static int compute(Position position) {
+        int score = 0;
+        for (int cell = 0; cell < Position.CELLS; cell++) {
+            score += pieceSquare(position.get(cell), cell);
+        }
+        return score;
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * The binary format of game archives, written by GameArchiveWriter and read by
+ * GameArchiveReader. All numbers are big-endian.
+ * <p>
+ * An archive starts with an 8 byte header: the magic number and the format version, as
+ * ints. Game records follow one after another, each with a 4 byte header and then its
+ * moves:
+ * <ul>
+ *     <li>the number of plies, an unsigned short;</li>
+ *     <li>the result, a byte holding one of the GameState result constants;</li>
+ *     <li>the state the game ended in, a byte holding one of the GameState state constants;</li>
+ *     <li>each move in 2 bytes, as the unsigned short from * CELLS + to.</li>
+ * </ul>
+ * Every game starts from the initial position. A move is replayed from its cells alone,
+ * as the piece and any captured piece are those on its cells, so 192 * 192 = 36864
+ * codes cover every move.
+ */
+public class GameArchive {
+    // The first int of every archive, "3DCG" in ASCII.
+    public static final int MAGIC = 0x33444347;
+    // The version of the format.
+    public static final int VERSION = 1;
+    // The size of the archive header and of the header of each game record, in bytes.
+    public static final int HEADER_BYTES = 8;
+    public static final int RECORD_HEADER_BYTES = 4;
+    // The size of each move in a record, in bytes.
+    public static final int MOVE_BYTES = 2;
+    // The most plies a record can hold.
+    public static final int MAX_PLIES = 0xFFFF;
+
+    private GameArchive() {
+    }
+
+    /**
+     * Encodes a move for a record.
+     *
+     * @param move the packed move
+     * @return the move code, from 0 to CELLS * CELLS - 1
+     */
+    public static int encode(int move) {
+        return Move.from(move) * Position.CELLS + Move.to(move);
+    }
+
+    /**
+     * Returns the cell a move code moves from.
+     *
+     * @param code the move code
+     * @return the origin cell
+     */
+    public static int from(int code) {
+        return code / Position.CELLS;
+    }
+
+    /**
+     * Returns the cell a move code moves to.
+     *
+     * @param code the move code
+     * @return the destination cell
+     */
+    public static int to(int code) {
+        return code % Position.CELLS;
+    }
+
+    /**
+     * Returns the size of a game record.
+     *
+     * @param plies the number of plies of the game
+     * @return the size in bytes
+     */
+    public static int recordBytes(int plies) {
+        return RECORD_HEADER_BYTES + plies * MOVE_BYTES;
+    }
+}
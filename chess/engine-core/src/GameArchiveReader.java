@@ -0,0 +1,187 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the games of an archive (see GameArchive) one after another through memory
+ * mapping. The reader is a cursor: next moves it to the following game, whose header and
+ * moves are then read straight from the mapped file. Nothing is allocated per game, so
+ * millions of games can be scanned at the speed the page cache delivers them.
+ * <p>
+ * Archives may be larger than a single mapping can be, so the file is mapped in windows
+ * of up to a gigabyte. A new window is mapped, starting at the current record, when a
+ * record does not fit in the current one. An incomplete record at the end of the file,
+ * left by a writer that stopped while appending, is ignored.
+ */
+public class GameArchiveReader implements Closeable {
+    // The largest window of the file mapped at once, in bytes.
+    private static final long WINDOW_BYTES = 1L << 30;
+
+    // The archive file.
+    private final FileChannel channel;
+    // The size of the file when it was opened.
+    private final long size;
+    // The mapped window of the file, and the file offset it starts at.
+    private MappedByteBuffer window;
+    private long windowStart;
+    // The file offset of the next record.
+    private long nextOffset;
+    // The file offset of the current record, and its index in the window.
+    private long offset;
+    private int index;
+    // The header of the current record.
+    private int plies;
+    private int result;
+    private int state;
+
+    /**
+     * Opens an archive.
+     *
+     * @param path the archive file
+     * @throws IOException if the file cannot be read or is not an archive
+     */
+    public GameArchiveReader(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        size = channel.size();
+        if (size < GameArchive.HEADER_BYTES) {
+            channel.close();
+            throw new IOException(path + " is not a game archive");
+        }
+        map(0, GameArchive.HEADER_BYTES);
+        int magic = window.getInt(0);
+        int version = window.getInt(4);
+        if (magic != GameArchive.MAGIC || version != GameArchive.VERSION) {
+            channel.close();
+            throw new IOException(path + " is not a game archive of version " + GameArchive.VERSION);
+        }
+        nextOffset = GameArchive.HEADER_BYTES;
+    }
+
+    /**
+     * Moves to the next game.
+     *
+     * @return true if there is another complete game, false at the end of the archive
+     * @throws IOException if the file cannot be mapped
+     */
+    public boolean next() throws IOException {
+        if (nextOffset + GameArchive.RECORD_HEADER_BYTES > size) {
+            return false;
+        }
+        map(nextOffset, GameArchive.RECORD_HEADER_BYTES);
+        int recordPlies = Short.toUnsignedInt(window.getShort((int) (nextOffset - windowStart)));
+        int length = GameArchive.recordBytes(recordPlies);
+        if (nextOffset + length > size) {
+            return false;
+        }
+        map(nextOffset, length);
+        offset = nextOffset;
+        index = (int) (offset - windowStart);
+        plies = recordPlies;
+        result = window.get(index + 2);
+        state = window.get(index + 3);
+        nextOffset += length;
+        return true;
+    }
+
+    /**
+     * Makes sure a range of the file is inside the mapped window, mapping a new window
+     * starting at the range if it is not.
+     *
+     * @param start  the file offset of the range
+     * @param length the length of the range in bytes
+     * @throws IOException if the file cannot be mapped
+     */
+    private void map(long start, int length) throws IOException {
+        if (window != null && start >= windowStart && start + length <= windowStart + window.capacity()) {
+            return;
+        }
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_BYTES, size - start));
+    }
+
+    /**
+     * Returns the number of plies of the current game.
+     *
+     * @return the ply count
+     */
+    public int getPlies() {
+        return plies;
+    }
+
+    /**
+     * Returns the result of the current game.
+     *
+     * @return one of the GameState result constants
+     */
+    public int getResult() {
+        return result;
+    }
+
+    /**
+     * Returns the state the current game ended in.
+     *
+     * @return one of the GameState state constants
+     */
+    public int getState() {
+        return state;
+    }
+
+    /**
+     * Returns the file offset of the current game, which identifies it in the archive.
+     *
+     * @return the offset in bytes
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns a move of the current game.
+     *
+     * @param ply the number of the move, from 0 to getPlies() - 1
+     * @return the move code, as read by GameArchive.from and GameArchive.to
+     */
+    public int getMoveCode(int ply) {
+        if (ply < 0 || ply >= plies) {
+            throw new IndexOutOfBoundsException("Ply " + ply + " of " + plies);
+        }
+        return Short.toUnsignedInt(window.getShort(index + GameArchive.RECORD_HEADER_BYTES + ply * GameArchive.MOVE_BYTES));
+    }
+
+    /**
+     * Sets a position to the one after the first moves of the current game. The moves
+     * are played as they were recorded, without checking them.
+     *
+     * @param position the position to set, which is reused rather than allocated
+     * @param plies    the number of moves to play, at most getPlies()
+     */
+    public void replay(Position position, int plies) {
+        position.setupInitial();
+        for (int ply = 0; ply < plies; ply++) {
+            int code = getMoveCode(ply);
+            position.move(GameArchive.from(code), GameArchive.to(code));
+        }
+    }
+
+    /**
+     * Returns the file offset just after the last complete game read so far.
+     *
+     * @return the offset in bytes
+     */
+    public long getEndOffset() {
+        return nextOffset;
+    }
+
+    /**
+     * Closes the archive.
+     *
+     * @throws IOException if closing the file fails
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,94 @@
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends games to an archive (see GameArchive). Games are only ever added at the end of
+ * the file, so an archive can be read while it grows and the games already written are
+ * never at risk.
+ * <p>
+ * A writer that stops while appending leaves an incomplete record at the end. When an
+ * existing archive is opened, the writer scans it and cuts off any such record, so that
+ * the next game starts where a reader expects a record.
+ * <p>
+ * Games may be appended from several threads.
+ */
+public class GameArchiveWriter implements Closeable {
+    // The buffered file the games are appended to.
+    private final DataOutputStream out;
+
+    /**
+     * Opens an archive for appending, creating it if it does not exist.
+     *
+     * @param path the archive file
+     * @throws IOException if the file cannot be written, or exists but is not an archive
+     */
+    public GameArchiveWriter(Path path) throws IOException {
+        boolean exists = Files.exists(path) && Files.size(path) > 0;
+        if (exists) {
+            long end;
+            try (GameArchiveReader reader = new GameArchiveReader(path)) {
+                while (reader.next()) {
+                    // Skip to the end of the last complete game
+                }
+                end = reader.getEndOffset();
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                if (channel.size() > end) {
+                    channel.truncate(end);
+                }
+            }
+        }
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+        if (!exists) {
+            out.writeInt(GameArchive.MAGIC);
+            out.writeInt(GameArchive.VERSION);
+        }
+    }
+
+    /**
+     * Appends a game, given by the moves that led to a position from the initial position.
+     *
+     * @param position the final position of the game, with every move of the game on its undo stack
+     * @param result   one of the GameState result constants
+     * @param state    the state the game ended in, one of the GameState state constants
+     * @throws IOException if writing fails
+     */
+    public synchronized void append(Position position, int result, int state) throws IOException {
+        int plies = position.getMoveCount();
+        if (plies > GameArchive.MAX_PLIES) {
+            throw new IllegalArgumentException("A record holds at most " + GameArchive.MAX_PLIES + " plies, got " + plies);
+        }
+        out.writeShort(plies);
+        out.writeByte(result);
+        out.writeByte(state);
+        for (int ply = 0; ply < plies; ply++) {
+            out.writeShort(GameArchive.encode(position.getMove(ply)));
+        }
+    }
+
+    /**
+     * Writes the buffered games to the file.
+     *
+     * @throws IOException if writing fails
+     */
+    public synchronized void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Writes the buffered games and closes the archive.
+     *
+     * @throws IOException if writing or closing fails
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+}
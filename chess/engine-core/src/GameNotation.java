@@ -0,0 +1,115 @@
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Writes games as text in a notation modelled on PGN, for exchanging game collections.
+ * A game is a section of tags followed by its moves and its result:
+ * <pre>
+ * [Event "Casual game"]
+ * [White "Human"]
+ * [Black "Computer"]
+ * [Result "1-0"]
+ *
+ * 1. 0e20e4 0d70d5 2. 0e40d5 0d80d5 ... 1-0
+ * </pre>
+ * Moves are written in the coordinates of Move.toText, qualified by level: the level
+ * digit, column letter and rank of the origin cell followed by those of the target cell.
+ * Each tag value is quoted, with backslashes before quotes and backslashes. A collection
+ * is games written one after another, separated by a blank line.
+ * <p>
+ * GameNotationParser reads a game back, and GameNotationReader reads whole collections.
+ * Every game starts from the initial position.
+ */
+public class GameNotation {
+    // The longest line of moves written before wrapping.
+    private static final int LINE_LENGTH = 80;
+
+    private GameNotation() {
+    }
+
+    /**
+     * Writes a game read from notation, or built up as a NotatedGame.
+     *
+     * @param out  where the text is written
+     * @param game the game
+     * @throws IOException if writing fails
+     */
+    public static void write(Appendable out, NotatedGame game) throws IOException {
+        write(out, game.getTags(), game.getPosition(), game.getResult());
+    }
+
+    /**
+     * Writes a game, given by the moves that led to a position from the initial position.
+     * The Result tag is written from the result, whatever the tags hold.
+     *
+     * @param out      where the text is written
+     * @param tags     the tags of the game, written in their iteration order
+     * @param position the final position of the game, with every move of the game on its undo stack
+     * @param result   one of the GameState result constants
+     * @throws IOException if writing fails
+     */
+    public static void write(Appendable out, Map<String, String> tags, Position position, int result)
+            throws IOException {
+        String resultText = GameState.resultText(result);
+        boolean resultWritten = false;
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            boolean isResult = tag.getKey().equals("Result");
+            writeTag(out, tag.getKey(), isResult ? resultText : tag.getValue());
+            resultWritten |= isResult;
+        }
+        if (!resultWritten) {
+            writeTag(out, "Result", resultText);
+        }
+        out.append('\n');
+
+        StringBuilder line = new StringBuilder(LINE_LENGTH + 16);
+        for (int ply = 0; ply < position.getMoveCount(); ply++) {
+            if (ply % 2 == 0) {
+                appendToken(out, line, (ply / 2 + 1) + ".");
+            }
+            appendToken(out, line, Move.toText(position.getMove(ply)));
+        }
+        appendToken(out, line, resultText);
+        out.append(line).append("\n\n");
+    }
+
+    /**
+     * Writes a tag line.
+     *
+     * @param out   where the text is written
+     * @param name  the name of the tag
+     * @param value the value of the tag, quoted as it is written
+     * @throws IOException if writing fails
+     */
+    private static void writeTag(Appendable out, String name, String value) throws IOException {
+        out.append('[').append(name).append(" \"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\');
+            }
+            out.append(c == '\n' ? ' ' : c);
+        }
+        out.append("\"]\n");
+    }
+
+    /**
+     * Adds a token to the line of moves being built, writing the line out first if the
+     * token would make it too long.
+     *
+     * @param out   where the text is written
+     * @param line  the line being built
+     * @param token the token to add
+     * @throws IOException if writing fails
+     */
+    private static void appendToken(Appendable out, StringBuilder line, String token) throws IOException {
+        if (line.length() > 0 && line.length() + 1 + token.length() > LINE_LENGTH) {
+            out.append(line).append('\n');
+            line.setLength(0);
+        }
+        if (line.length() > 0) {
+            line.append(' ');
+        }
+        line.append(token);
+    }
+}
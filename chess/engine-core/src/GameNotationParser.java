@@ -0,0 +1,219 @@
+/**
+ * Reads the text of one game in the notation of GameNotation, checking every move for
+ * legality by playing it out from the initial position. Besides what GameNotation
+ * writes, the parser accepts:
+ * <ul>
+ *     <li>a "-" or "x" between the origin and target cells of a move;</li>
+ *     <li>the annotations "+", "#", "!" and "?" after a move;</li>
+ *     <li>comments in braces, and comments from ";" to the end of the line;</li>
+ *     <li>move numbers with any number of dots, joined to the move or not.</li>
+ * </ul>
+ * The result is taken from the end of the moves, or from the Result tag if the moves
+ * have none. Each move is tested on its own rather than by generating every move of
+ * the position. A parser keeps its buffers from game to game, so each thread reading
+ * games should have its own.
+ */
+public class GameNotationParser {
+    // The checks and pins of the position being read, for testing moves for legality.
+    private final KingSafety safety = new KingSafety();
+
+    /**
+     * Reads the text of a game. A fault in the text does not throw: the game holds the
+     * moves read before it and describes it in its error.
+     *
+     * @param text   the text of the game, its tags and moves
+     * @param number the number of the game in its input, from 0
+     * @return the game
+     */
+    public NotatedGame parse(CharSequence text, long number) {
+        NotatedGame game = new NotatedGame(number);
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '[') {
+                i = parseTag(text, i, game);
+            } else if (c == '{') {
+                i = skipPast(text, i, '}');
+            } else if (c == ';') {
+                i = skipPast(text, i, '\n');
+            } else {
+                int end = i;
+                while (end < length && !Character.isWhitespace(text.charAt(end))) {
+                    end++;
+                }
+                int result = parseResult(text, i, end);
+                if (result != GameState.NO_RESULT || matches(text, i, end, "*")) {
+                    game.setResult(result);
+                    return game;
+                }
+                if (!parseMove(text, i, end, game)) {
+                    return game;
+                }
+                i = end;
+            }
+            if (game.getError() != null) {
+                return game;
+            }
+        }
+        String resultTag = game.getTags().get("Result");
+        if (resultTag != null) {
+            game.setResult(parseResult(resultTag, 0, resultTag.length()));
+        }
+        return game;
+    }
+
+    /**
+     * Reads a tag, such as [White "Human"], into a game.
+     *
+     * @param text  the text of the game
+     * @param start the index of the opening bracket
+     * @param game  the game being read
+     * @return the index after the closing bracket
+     */
+    private static int parseTag(CharSequence text, int start, NotatedGame game) {
+        int length = text.length();
+        int i = start + 1;
+        int nameStart = i;
+        while (i < length && !Character.isWhitespace(text.charAt(i)) && text.charAt(i) != '"') {
+            i++;
+        }
+        String name = text.subSequence(nameStart, i).toString();
+        while (i < length && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        if (name.isEmpty() || i >= length || text.charAt(i) != '"') {
+            game.setError("Malformed tag at character " + start);
+            return length;
+        }
+        StringBuilder value = new StringBuilder();
+        for (i++; i < length && text.charAt(i) != '"'; i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < length) {
+                c = text.charAt(++i);
+            }
+            value.append(c);
+        }
+        i++;
+        while (i < length && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        if (i >= length || text.charAt(i) != ']') {
+            game.setError("Malformed tag " + name);
+            return length;
+        }
+        game.getTags().put(name, value.toString());
+        return i + 1;
+    }
+
+    /**
+     * Reads a move or a move number and plays the move in a game.
+     *
+     * @param text  the text of the game
+     * @param start the index of the token
+     * @param end   the index after the token
+     * @param game  the game being read
+     * @return true if the token was read, false if it is not a legal move
+     */
+    private boolean parseMove(CharSequence text, int start, int end, NotatedGame game) {
+        // Skip a move number, which may be joined to the move that follows it.
+        int i = start;
+        while (i < end && Character.isDigit(text.charAt(i)) && i + 1 < end && !Character.isLetter(text.charAt(i + 1))) {
+            i++;
+        }
+        if (i < end && text.charAt(i) == '.') {
+            while (i < end && text.charAt(i) == '.') {
+                i++;
+            }
+        } else {
+            i = start;
+        }
+        if (i == end) {
+            return true;
+        }
+        while (end > i && "+#!?".indexOf(text.charAt(end - 1)) >= 0) {
+            end--;
+        }
+
+        int from = Position.parseCell(text, i);
+        int toIndex = i + 3;
+        if (toIndex < end && (text.charAt(toIndex) == '-' || text.charAt(toIndex) == 'x')) {
+            toIndex++;
+        }
+        int to = toIndex + 3 == end ? Position.parseCell(text, toIndex) : -1;
+        Position position = game.getPosition();
+        if (from >= 0 && to >= 0) {
+            int move = Move.of(from, to, position.get(from), position.get(to));
+            if (MoveGenerator.isPseudoLegal(position, move)) {
+                safety.compute(position, position.getSideToMove());
+                if (safety.isLegal(position, move)) {
+                    position.makeMove(move);
+                    return true;
+                }
+            }
+        }
+        game.setError("Illegal move " + text.subSequence(start, end) + " at ply " + (position.getMoveCount() + 1));
+        return false;
+    }
+
+    /**
+     * Reads a result token.
+     *
+     * @param text  the text the token is in
+     * @param start the index of the token
+     * @param end   the index after the token
+     * @return one of the GameState result constants, NO_RESULT if the token is not a result
+     */
+    private static int parseResult(CharSequence text, int start, int end) {
+        if (matches(text, start, end, "1-0")) {
+            return GameState.WHITE_WINS;
+        }
+        if (matches(text, start, end, "0-1")) {
+            return GameState.BLACK_WINS;
+        }
+        if (matches(text, start, end, "1/2-1/2")) {
+            return GameState.DRAW;
+        }
+        return GameState.NO_RESULT;
+    }
+
+    /**
+     * Checks if a range of text is a given token.
+     *
+     * @param text  the text
+     * @param start the index of the range
+     * @param end   the index after the range
+     * @param token the token
+     * @return true if the range holds exactly the token, false otherwise
+     */
+    private static boolean matches(CharSequence text, int start, int end, String token) {
+        if (end - start != token.length()) {
+            return false;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            if (text.charAt(start + i) != token.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Skips past the next occurrence of a character.
+     *
+     * @param text  the text
+     * @param start the index to search from
+     * @param c     the character
+     * @return the index after the character, or the length of the text if it does not occur
+     */
+    private static int skipPast(CharSequence text, int start, char c) {
+        for (int i = start + 1; i < text.length(); i++) {
+            if (text.charAt(i) == c) {
+                return i + 1;
+            }
+        }
+        return text.length();
+    }
+}
@@ -0,0 +1,313 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Reads a collection of games in the notation of GameNotation, of any size, in a
+ * pipeline of threads:
+ * <ol>
+ *     <li>a reader thread splits the text into the text of each game;</li>
+ *     <li>parser threads each read games with their own GameNotationParser;</li>
+ *     <li>the calling thread hands the games to a handler in the order of the input.</li>
+ * </ol>
+ * At most a fixed number of games are in the pipeline at once, counted from when the
+ * reader thread splits them off to when the handler is given them. The reader waits
+ * while the pipeline is full, so memory stays bounded however long the input is and
+ * however slow the handler.
+ * <p>
+ * A new game starts at a tag line that follows moves. Games with faults in their text are
+ * handed over too, with their error set, so the handler decides whether to skip them. The
+ * text of a game is cut off at MAX_GAME_CHARS, and such a game is handed over with an
+ * error, so that input with no game boundaries cannot use up the memory.
+ */
+public class GameNotationReader {
+    /**
+     * Receives the games read, in the order of the input.
+     */
+    public interface GameHandler {
+        /**
+         * Called on the thread that called read, for each game in turn.
+         *
+         * @param game the game, with its error set if its text had a fault
+         * @throws IOException if handling the game fails, which ends the reading
+         */
+        void gameRead(NotatedGame game) throws IOException;
+    }
+
+    /**
+     * The text of one game, on its way from the reader thread to a parser thread.
+     */
+    private static class Chunk {
+        // Tells a parser thread that there are no more games.
+        private static final Chunk END = new Chunk(-1, "", false);
+
+        // The number of the game in the input, and its text.
+        private final long number;
+        private final String text;
+        // Whether the text was cut off at MAX_GAME_CHARS.
+        private final boolean truncated;
+
+        /**
+         * Constructs a chunk.
+         *
+         * @param number    the number of the game in the input
+         * @param text      the text of the game
+         * @param truncated whether the text was cut off at MAX_GAME_CHARS
+         */
+        private Chunk(long number, String text, boolean truncated) {
+            this.number = number;
+            this.text = text;
+            this.truncated = truncated;
+        }
+    }
+
+    // The most characters of a game's text that are kept; the rest is skipped.
+    public static final int MAX_GAME_CHARS = 1 << 20;
+    // The number of characters read from the input at once.
+    private static final int READ_BUFFER_CHARS = 8192;
+
+    // The number of parser threads.
+    private final int parsers;
+    // The most games in the pipeline at once.
+    private final int capacity;
+
+    /**
+     * Constructs a reader.
+     *
+     * @param parsers  the number of parser threads, at least 1
+     * @param capacity the most games in the pipeline at once, at least 1
+     */
+    public GameNotationReader(int parsers, int capacity) {
+        if (parsers < 1 || capacity < 1) {
+            throw new IllegalArgumentException("A reader needs at least 1 parser thread and room for 1 game");
+        }
+        this.parsers = parsers;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Reads every game of a collection and hands each to a handler, in order.
+     *
+     * @param in      the text of the collection, which the caller closes
+     * @param handler the handler of the games
+     * @return the number of games read
+     * @throws IOException          if reading the input or handling a game fails
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    public long read(Reader in, GameHandler handler) throws IOException, InterruptedException {
+        return new Pipeline().run(in, handler);
+    }
+
+    /**
+     * The threads and queues of one call to read.
+     */
+    private class Pipeline {
+        // The texts waiting for a parser thread.
+        private final BlockingQueue<Chunk> chunks = new LinkedBlockingQueue<>();
+        // A permit for each game that may enter the pipeline.
+        private final Semaphore permits = new Semaphore(capacity);
+        // The parsed games waiting to be handed over, indexed by number modulo the capacity. Guarded by this.
+        private final NotatedGame[] parsed = new NotatedGame[capacity];
+        // The number of games in the input once the reader thread has read all of it, or -1. Guarded by this.
+        private long total = -1;
+        // The first error of a pipeline thread, or null. Guarded by this.
+        private Throwable failure;
+
+        /**
+         * Starts the reader and parser threads, and hands the games to a handler on the
+         * calling thread as they are parsed.
+         *
+         * @param in      the text of the collection
+         * @param handler the handler of the games
+         * @return the number of games read
+         * @throws IOException          if reading the input or handling a game fails
+         * @throws InterruptedException if the calling thread is interrupted
+         */
+        private long run(Reader in, GameHandler handler) throws IOException, InterruptedException {
+            Thread[] threads = new Thread[parsers + 1];
+            threads[0] = new Thread(() -> split(in), "notation-reader");
+            for (int i = 1; i <= parsers; i++) {
+                threads[i] = new Thread(this::parse, "notation-parser");
+            }
+            for (Thread thread : threads) {
+                thread.setDaemon(true);
+                thread.start();
+            }
+            try {
+                for (long next = 0; ; next++) {
+                    NotatedGame game = take(next);
+                    if (game == null) {
+                        return next; // Every game has been handed over
+                    }
+                    permits.release();
+                    handler.gameRead(game);
+                }
+            } finally {
+                for (Thread thread : threads) {
+                    thread.interrupt();
+                }
+            }
+        }
+
+        /**
+         * Waits for a game to be parsed and takes it out of the pipeline.
+         *
+         * @param number the number of the game in the input
+         * @return the game, or null if the input has fewer games
+         * @throws IOException          if a pipeline thread failed
+         * @throws InterruptedException if the calling thread is interrupted
+         */
+        private synchronized NotatedGame take(long number) throws IOException, InterruptedException {
+            int slot = (int) (number % capacity);
+            while (parsed[slot] == null && failure == null && (total < 0 || number < total)) {
+                wait();
+            }
+            if (failure != null) {
+                throw new IOException("Reading the games failed", failure);
+            }
+            NotatedGame game = parsed[slot];
+            parsed[slot] = null;
+            return game;
+        }
+
+        /**
+         * Splits the input into the text of each game, on the reader thread, and queues
+         * each for the parser threads once the pipeline has room for it.
+         *
+         * @param in the text of the collection
+         */
+        private void split(Reader in) {
+            try {
+                char[] buffer = new char[READ_BUFFER_CHARS];
+                StringBuilder text = new StringBuilder();
+                boolean truncated = false;
+                boolean hasMoves = false;
+                // Whether the next character starts a line, and what the current line holds so far.
+                boolean lineStart = true;
+                boolean lineIsTag = false;
+                boolean lineHasText = false;
+                long number = 0;
+                int count;
+                while ((count = in.read(buffer)) != -1) {
+                    for (int i = 0; i < count; i++) {
+                        char c = buffer[i];
+                        if (lineStart) {
+                            lineIsTag = c == '[';
+                            if (lineIsTag && hasMoves) {
+                                queue(number++, text, truncated);
+                                truncated = false;
+                                hasMoves = false;
+                            }
+                            lineStart = false;
+                        }
+                        if (c == '\n') {
+                            hasMoves |= !lineIsTag && lineHasText;
+                            lineStart = true;
+                            lineHasText = false;
+                        } else if (!Character.isWhitespace(c)) {
+                            lineHasText = true;
+                        }
+                        if (text.length() < MAX_GAME_CHARS) {
+                            text.append(c);
+                        } else {
+                            truncated = true;
+                        }
+                    }
+                }
+                if (!text.toString().isBlank()) {
+                    queue(number++, text, truncated);
+                }
+                synchronized (this) {
+                    total = number;
+                    notifyAll();
+                }
+            } catch (Throwable e) {
+                fail(e);
+            } finally {
+                for (int i = 0; i < parsers; i++) {
+                    chunks.add(Chunk.END);
+                }
+            }
+        }
+
+        /**
+         * Queues the text of a game for the parser threads, waiting until the pipeline has room.
+         *
+         * @param number    the number of the game in the input
+         * @param text      the text of the game, which is cleared for the next game
+         * @param truncated whether the text was cut off at MAX_GAME_CHARS
+         * @throws InterruptedException if the reader thread is interrupted while waiting
+         */
+        private void queue(long number, StringBuilder text, boolean truncated) throws InterruptedException {
+            permits.acquire();
+            chunks.add(new Chunk(number, text.toString(), truncated));
+            text.setLength(0);
+        }
+
+        /**
+         * Parses queued games on a parser thread until the reader thread has read the whole input.
+         */
+        private void parse() {
+            GameNotationParser parser = new GameNotationParser();
+            try {
+                Chunk chunk;
+                while ((chunk = chunks.take()) != Chunk.END) {
+                    NotatedGame game = parser.parse(chunk.text, chunk.number);
+                    if (chunk.truncated) {
+                        game.setError("Game text longer than " + MAX_GAME_CHARS + " characters");
+                    }
+                    synchronized (this) {
+                        parsed[(int) (chunk.number % capacity)] = game;
+                        notifyAll();
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Reading has ended early
+            } catch (Throwable e) {
+                fail(e);
+            }
+        }
+
+        /**
+         * Records the first error of a pipeline thread and wakes the calling thread to report it.
+         *
+         * @param error the error
+         */
+        private synchronized void fail(Throwable error) {
+            if (failure == null) {
+                failure = error;
+            }
+            notifyAll();
+        }
+    }
+
+    /**
+     * Converts a collection of games in notation into a game archive. Games with faults
+     * are reported and skipped. The arguments are the notation file, the archive file and
+     * optionally the number of parser threads.
+     *
+     * @param args command line arguments
+     * @throws IOException          if a file cannot be read or written
+     * @throws InterruptedException if the main thread is interrupted
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int parsers = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        GameNotationReader reader = new GameNotationReader(parsers, 1024);
+        try (Reader in = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8);
+             GameArchiveWriter archive = new GameArchiveWriter(Paths.get(args[1]))) {
+            long games = reader.read(in, game -> {
+                if (game.getError() != null) {
+                    System.err.println("Game " + game.getNumber() + ": " + game.getError());
+                } else {
+                    archive.append(game.getPosition(), game.getResult(), GameState.of(game.getPosition()));
+                }
+            });
+            System.out.println("Read " + games + " games");
+        }
+    }
+}
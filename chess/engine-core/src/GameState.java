@@ -0,0 +1,125 @@
+/**
+ * Decides whether a game has ended, and how. A game ends when the side to move has no
+ * legal move, by checkmate if its king is attacked and by stalemate otherwise, or is
+ * drawn when fifty moves of each side pass without a capture or pawn move, or when a
+ * position occurs for the third time.
+ */
+public class GameState {
+    // The states of a game.
+    public static final int ONGOING = 0;
+    public static final int CHECKMATE = 1;
+    public static final int STALEMATE = 2;
+    public static final int FIFTY_MOVES = 3;
+    public static final int REPETITION = 4;
+
+    // The results of a game, as the half points white scores, and the result of an unfinished game.
+    public static final int BLACK_WINS = 0;
+    public static final int DRAW = 1;
+    public static final int WHITE_WINS = 2;
+    public static final int NO_RESULT = 3;
+
+    // The halfmove clock at which the fifty move rule ends the game.
+    private static final int FIFTY_MOVE_PLIES = 100;
+
+    private GameState() {
+    }
+
+    /**
+     * Finds the state of the game in a position.
+     *
+     * @param position the position, with the moves that led to it on its undo stack
+     * @return one of the state constants
+     */
+    public static int of(Position position) {
+        if (!position.hasKing(position.getSideToMove())) {
+            return CHECKMATE; // Only reachable from a set up position
+        }
+        KingSafety safety = new KingSafety();
+        int count = MoveGenerator.generateLegalMoves(position, safety, new int[MoveGenerator.MAX_MOVES], 0);
+        if (count == 0) {
+            return safety.isInCheck() ? CHECKMATE : STALEMATE;
+        }
+        if (position.getHalfmoveClock() >= FIFTY_MOVE_PLIES) {
+            return FIFTY_MOVES;
+        }
+        if (position.countRepetitions() >= 2) {
+            return REPETITION;
+        }
+        return ONGOING;
+    }
+
+    /**
+     * Checks if a state ends the game.
+     *
+     * @param state one of the state constants
+     * @return true for every state but ONGOING
+     */
+    public static boolean isOver(int state) {
+        return state != ONGOING;
+    }
+
+    /**
+     * Checks if a state ends the game in a draw.
+     *
+     * @param state one of the state constants
+     * @return true for stalemate and the draw rules, false otherwise
+     */
+    public static boolean isDraw(int state) {
+        return state == STALEMATE || state == FIFTY_MOVES || state == REPETITION;
+    }
+
+    /**
+     * Finds the result of a game from its state.
+     *
+     * @param position the position the state was found in
+     * @param state    one of the state constants
+     * @return WHITE_WINS or BLACK_WINS after checkmate, DRAW after a draw and NO_RESULT otherwise
+     */
+    public static int resultOf(Position position, int state) {
+        if (state == CHECKMATE) {
+            // The side to move has been checkmated.
+            return position.getSideToMove() == Position.WHITE ? BLACK_WINS : WHITE_WINS;
+        }
+        return isDraw(state) ? DRAW : NO_RESULT;
+    }
+
+    /**
+     * Returns a result in the usual notation.
+     *
+     * @param result one of the result constants
+     * @return "1-0", "0-1", "1/2-1/2" or "*" for no result
+     */
+    public static String resultText(int result) {
+        switch (result) {
+            case WHITE_WINS:
+                return "1-0";
+            case BLACK_WINS:
+                return "0-1";
+            case DRAW:
+                return "1/2-1/2";
+            default:
+                return "*";
+        }
+    }
+
+    /**
+     * Returns a description of a state for display.
+     *
+     * @param state one of the state constants
+     * @return the description
+     */
+    public static String describe(int state) {
+        switch (state) {
+            case CHECKMATE:
+                return "Checkmate";
+            case STALEMATE:
+                return "Stalemate";
+            case FIFTY_MOVES:
+                return "Draw by the fifty move rule";
+            case REPETITION:
+                return "Draw by repetition";
+            default:
+                return "In progress";
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/**
+ * Finds the checks and pins against the king of one side, so that pseudo-legal moves
+ * can be tested for legality without making them. The information is gathered by
+ * looking outward from the king once per position: along the 26 rays for sliding
+ * checkers and pinned pieces, and through the attack masks for knights and pawns.
+ * <p>
+ * A move is then legal if:
+ * <ul>
+ *     <li>the king moves to a cell the other side does not attack once the king has left its cell;</li>
+ *     <li>otherwise, the king is not in double check;</li>
+ *     <li>in single check, the move captures the checking piece or blocks its ray;</li>
+ *     <li>a pinned piece stays on the ray between the king and the piece pinning it.</li>
+ * </ul>
+ * A KingSafety holds the result for one position, so each thread needs its own.
+ */
+public class KingSafety {
+    // The side whose king is protected.
+    private int colour;
+    // The cell of the king, or -1 if the side has no king.
+    private int king = -1;
+    // The number of pieces giving check.
+    private int checkers;
+    // When in single check, the cells that capture the checking piece or block its ray, one mask per level.
+    private final long[] evasions = new long[Position.LEVELS];
+    // The pinned pieces of the side, one mask per level.
+    private final long[] pinned = new long[Position.LEVELS];
+    // The ray direction from the king to each pinned piece.
+    private final int[] pinDirections = new int[Position.CELLS];
+
+    /**
+     * Finds the checks and pins against the king of a side.
+     *
+     * @param position the position to examine
+     * @param colour   the side whose king is protected, WHITE or BLACK
+     */
+    public void compute(Position position, int colour) {
+        this.colour = colour;
+        king = position.findKing(colour);
+        checkers = 0;
+        for (int level = 0; level < Position.LEVELS; level++) {
+            evasions[level] = 0;
+            pinned[level] = 0;
+        }
+        if (king < 0) {
+            return;
+        }
+
+        // Knights and pawns give check but cannot pin, and their checks cannot be blocked.
+        int enemy = colour ^ 1;
+        byte enemyKnight = Position.piece(Position.KNIGHT, enemy);
+        byte enemyPawn = Position.piece(Position.PAWN, enemy);
+        for (int level = 0; level < Position.LEVELS; level++) {
+            long attackers = (Attacks.knight(king, level) & position.pieces(enemyKnight, level))
+                    | (Attacks.pawnAttackers(enemy, king, level) & position.pieces(enemyPawn, level));
+            if (attackers != 0) {
+                checkers += Long.bitCount(attackers);
+                evasions[level] |= attackers;
+            }
+        }
+
+        for (int direction = 0; direction < Rays.COUNT; direction++) {
+            findSlidingCheckOrPin(position, direction);
+        }
+    }
+
+    /**
+     * Walks one ray out from the king. A sliding enemy piece that moves along the ray
+     * and is the first piece on it gives check; if exactly one friendly piece stands
+     * before it, that piece is pinned.
+     *
+     * @param position  the position to examine
+     * @param direction the direction of the ray
+     */
+    private void findSlidingCheckOrPin(Position position, int direction) {
+        int length = Rays.length(king, direction);
+        int blocker = -1;
+        for (int index = 0; index < length; index++) {
+            int cell = Rays.target(king, direction, index);
+            byte piece = position.get(cell);
+            if (piece == Position.EMPTY) {
+                continue;
+            }
+            if (Position.colourOf(piece) == colour) {
+                if (blocker >= 0) {
+                    return; // Two friendly pieces on the ray: neither is pinned
+                }
+                blocker = cell;
+                continue;
+            }
+            if (!slidesAlong(piece, direction)) {
+                return; // The enemy piece nearest the king cannot attack along this ray
+            }
+            if (blocker >= 0) {
+                pinned[Position.levelOf(blocker)] |= Attacks.bit(blocker);
+                pinDirections[blocker] = direction;
+            } else {
+                checkers++;
+                for (int between = 0; between <= index; between++) {
+                    int target = Rays.target(king, direction, between);
+                    evasions[Position.levelOf(target)] |= Attacks.bit(target);
+                }
+            }
+            return;
+        }
+    }
+
+    /**
+     * Checks if a piece moves along a ray direction. The direction ranges of the sliding
+     * pieces are closed under reversal, so this also tells whether the piece attacks
+     * back along the ray towards its origin.
+     *
+     * @param piece     the piece code
+     * @param direction the direction index
+     * @return true if the piece is a rook, bishop or queen that uses the direction, false otherwise
+     */
+    private static boolean slidesAlong(byte piece, int direction) {
+        switch (Position.typeOf(piece)) {
+            case Position.QUEEN:
+                return true;
+            case Position.ROOK:
+                return direction >= Rays.ROOK_FIRST && direction < Rays.ROOK_LAST;
+            case Position.BISHOP:
+                return direction >= Rays.BISHOP_FIRST && direction < Rays.BISHOP_LAST;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Checks if a pseudo-legal move of the protected side leaves its king safe.
+     * The position must be the one last passed to compute.
+     *
+     * @param position the position the move is made in
+     * @param move     the packed move, which must follow the movement rules of its piece
+     * @return true if the move does not leave the king attacked, false otherwise
+     */
+    public boolean isLegal(Position position, int move) {
+        if (king < 0) {
+            return true;
+        }
+        int from = Move.from(move);
+        int to = Move.to(move);
+        if (from == king) {
+            // The king's own cell no longer blocks the rays of sliding attackers.
+            return !isAttacked(position, to, colour ^ 1, king);
+        }
+        if (checkers > 1) {
+            return false; // Only the king can escape a double check
+        }
+        if (checkers == 1 && (evasions[Position.levelOf(to)] & Attacks.bit(to)) == 0) {
+            return false;
+        }
+        return (pinned[Position.levelOf(from)] & Attacks.bit(from)) == 0
+                || Rays.direction(king, to) == pinDirections[from];
+    }
+
+    /**
+     * Checks if the king is in check.
+     *
+     * @return true if at least one enemy piece attacks the king, false otherwise
+     */
+    public boolean isInCheck() {
+        return checkers > 0;
+    }
+
+    /**
+     * Returns the number of enemy pieces attacking the king.
+     *
+     * @return the number of checking pieces
+     */
+    public int getCheckers() {
+        return checkers;
+    }
+
+    /**
+     * Checks if a cell is attacked by the pieces of a side.
+     *
+     * @param position the position to examine
+     * @param cell     the cell to test
+     * @param colour   the attacking side, WHITE or BLACK
+     * @param ignored  a cell treated as empty by sliding pieces, or -1
+     * @return true if a piece of the colour attacks the cell, false otherwise
+     */
+    public static boolean isAttacked(Position position, int cell, int colour, int ignored) {
+        byte knight = Position.piece(Position.KNIGHT, colour);
+        byte king = Position.piece(Position.KING, colour);
+        byte pawn = Position.piece(Position.PAWN, colour);
+        for (int level = 0; level < Position.LEVELS; level++) {
+            if ((Attacks.knight(cell, level) & position.pieces(knight, level)) != 0
+                    || (Attacks.king(cell, level) & position.pieces(king, level)) != 0
+                    || (Attacks.pawnAttackers(colour, cell, level) & position.pieces(pawn, level)) != 0) {
+                return true;
+            }
+        }
+
+        for (int direction = 0; direction < Rays.COUNT; direction++) {
+            int length = Rays.length(cell, direction);
+            for (int index = 0; index < length; index++) {
+                int target = Rays.target(cell, direction, index);
+                byte piece = position.get(target);
+                if (piece == Position.EMPTY || target == ignored) {
+                    continue;
+                }
+                if (Position.colourOf(piece) == colour && slidesAlong(piece, direction)) {
+                    return true;
+                }
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the side to move is in check.
+     *
+     * @param position the position to examine
+     * @return true if the king of the side to move is attacked, false otherwise
+     */
+    public static boolean isInCheck(Position position) {
+        int side = position.getSideToMove();
+        int king = position.findKing(side);
+        return king >= 0 && isAttacked(position, king, side ^ 1, -1);
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Encodes moves of the headless position model as packed ints, so that move lists
+ * can be kept in plain int arrays. A move holds the cell it starts from in bits
+ * 0-7, the cell it ends on in bits 8-15, the code of the moving piece in bits 16-19
+ * and the code of the captured piece, or EMPTY, in bits 20-23.
+ */
+public class Move {
+    // The value used for "no move". No real move encodes to 0, as the moving piece is never EMPTY.
+    public static final int NONE = 0;
+
+    private Move() {
+    }
+
+    /**
+     * Packs a move into an int.
+     *
+     * @param from     the cell the piece moves from
+     * @param to       the cell the piece moves to
+     * @param piece    the code of the moving piece
+     * @param captured the code of the captured piece, or EMPTY
+     * @return the packed move
+     */
+    public static int of(int from, int to, int piece, int captured) {
+        return from | (to << 8) | (piece << 16) | (captured << 20);
+    }
+
+    /**
+     * Returns the cell a move starts from.
+     *
+     * @param move the packed move
+     * @return the origin cell
+     */
+    public static int from(int move) {
+        return move & 0xFF;
+    }
+
+    /**
+     * Returns the cell a move ends on.
+     *
+     * @param move the packed move
+     * @return the destination cell
+     */
+    public static int to(int move) {
+        return (move >>> 8) & 0xFF;
+    }
+
+    /**
+     * Returns the code of the piece making a move.
+     *
+     * @param move the packed move
+     * @return the moving piece code
+     */
+    public static byte piece(int move) {
+        return (byte) ((move >>> 16) & 0xF);
+    }
+
+    /**
+     * Returns the code of the piece a move captures.
+     *
+     * @param move the packed move
+     * @return the captured piece code, or EMPTY
+     */
+    public static byte captured(int move) {
+        return (byte) ((move >>> 20) & 0xF);
+    }
+
+    /**
+     * Returns the coordinate text of a move: the names of the cell it starts from and the
+     * cell it ends on, for example "0e20e4".
+     *
+     * @param move the packed move
+     * @return the six character text of the move
+     */
+    public static String toText(int move) {
+        return Position.cellName(from(move)) + Position.cellName(to(move));
+    }
+
+    /**
+     * Finds the legal move of a position written in coordinate text, as by toText.
+     *
+     * @param position the position the move is made in
+     * @param text     the six character text of the move
+     * @return the packed move, or NONE if the text is not a legal move of the position
+     */
+    public static int parse(Position position, String text) {
+        int from = Position.parseCell(text, 0);
+        int to = Position.parseCell(text, 3);
+        if (text.length() != 6 || from < 0 || to < 0) {
+            return NONE;
+        }
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateLegalMoves(position, new KingSafety(), moves, 0);
+        for (int i = 0; i < count; i++) {
+            if (from(moves[i]) == from && to(moves[i]) == to) {
+                return moves[i];
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Checks if a move captures a piece.
+     *
+     * @param move the packed move
+     * @return true if the move captures, false otherwise
+     */
+    public static boolean isCapture(int move) {
+        return (move & 0xF00000) != 0;
+    }
+}
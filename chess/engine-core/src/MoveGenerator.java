@@ -0,0 +1,360 @@
+/**
+ * Generates the moves of a headless Position as packed ints (see Move), writing them
+ * into a caller-supplied array so that no objects are allocated while generating.
+ * The moves follow the same rules as the Piece subclasses. generateMoves does not check
+ * whether the king is left under attack; generateLegalMoves does, using KingSafety.
+ * <p>
+ * Captures and quiet moves can also be generated separately, so that a search can try
+ * the captures before paying for the quiet moves.
+ */
+public class MoveGenerator {
+    // An upper bound on the number of moves in any position, for sizing move buffers.
+    public static final int MAX_MOVES = 512;
+
+    // The kinds of moves to generate, as bit flags.
+    private static final int CAPTURES = 1;
+    private static final int QUIETS = 2;
+    private static final int ALL = CAPTURES | QUIETS;
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Generates every move of the side to move.
+     *
+     * @param position the position to generate moves for
+     * @param moves    the buffer to write the moves into
+     * @param count    the index in the buffer at which to start writing
+     * @return the index after the last move written
+     */
+    public static int generateMoves(Position position, int[] moves, int count) {
+        return generate(position, ALL, moves, count);
+    }
+
+    /**
+     * Generates the moves of the side to move that capture a piece.
+     *
+     * @param position the position to generate moves for
+     * @param moves    the buffer to write the moves into
+     * @param count    the index in the buffer at which to start writing
+     * @return the index after the last move written
+     */
+    public static int generateCaptures(Position position, int[] moves, int count) {
+        return generate(position, CAPTURES, moves, count);
+    }
+
+    /**
+     * Generates the moves of the side to move that do not capture.
+     *
+     * @param position the position to generate moves for
+     * @param moves    the buffer to write the moves into
+     * @param count    the index in the buffer at which to start writing
+     * @return the index after the last move written
+     */
+    public static int generateQuietMoves(Position position, int[] moves, int count) {
+        return generate(position, QUIETS, moves, count);
+    }
+
+    /**
+     * Generates every legal move of the side to move: the moves of generateMoves that do
+     * not leave its king attacked. Each move is tested against the checks and pins found
+     * once for the position, rather than by making it and looking for attacks on the king.
+     *
+     * @param position the position to generate moves for
+     * @param safety   the king safety of the side to move, which is recomputed for the position
+     * @param moves    the buffer to write the moves into
+     * @param count    the index in the buffer at which to start writing
+     * @return the index after the last move written
+     */
+    public static int generateLegalMoves(Position position, KingSafety safety, int[] moves, int count) {
+        safety.compute(position, position.getSideToMove());
+        int end = generateMoves(position, moves, count);
+        for (int i = count; i < end; i++) {
+            if (safety.isLegal(position, moves[i])) {
+                moves[count++] = moves[i];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Generates the moves of some kinds for every piece of the side to move.
+     *
+     * @param position the position to generate moves for
+     * @param kinds    the kinds of moves to generate, CAPTURES, QUIETS or both
+     * @param moves    the buffer to write the moves into
+     * @param count    the index in the buffer at which to start writing
+     * @return the index after the last move written
+     */
+    private static int generate(Position position, int kinds, int[] moves, int count) {
+        int side = position.getSideToMove();
+        for (int level = 0; level < Position.LEVELS; level++) {
+            long pieces = position.occupancy(side, level);
+            while (pieces != 0) {
+                int from = (level << 6) | Long.numberOfTrailingZeros(pieces);
+                count = generatePieceMoves(position, from, kinds, moves, count);
+                pieces &= pieces - 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Generates the moves of the piece on one cell.
+     *
+     * @param position the position to generate moves for
+     * @param from     the cell of the piece
+     * @param moves    the buffer to write the moves into
+     * @param count    the index in the buffer at which to start writing
+     * @return the index after the last move written
+     */
+    public static int generatePieceMoves(Position position, int from, int[] moves, int count) {
+        return generatePieceMoves(position, from, ALL, moves, count);
+    }
+
+    /**
+     * Generates the moves of some kinds for the piece on one cell.
+     *
+     * @param position the position to generate moves for
+     * @param from     the cell of the piece
+     * @param kinds    the kinds of moves to generate, CAPTURES, QUIETS or both
+     * @param moves    the buffer to write the moves into
+     * @param count    the index in the buffer at which to start writing
+     * @return the index after the last move written
+     */
+    private static int generatePieceMoves(Position position, int from, int kinds, int[] moves, int count) {
+        byte piece = position.get(from);
+        switch (Position.typeOf(piece)) {
+            case Position.PAWN:
+                return generatePawnMoves(position, from, piece, kinds, moves, count);
+            case Position.KNIGHT:
+                return generateLeaperMoves(position, from, piece, false, kinds, moves, count);
+            case Position.KING:
+                return generateLeaperMoves(position, from, piece, true, kinds, moves, count);
+            case Position.BISHOP:
+                return generateSlidingMoves(position, from, piece, Rays.BISHOP_FIRST, Rays.BISHOP_LAST, kinds, moves, count);
+            case Position.ROOK:
+                return generateSlidingMoves(position, from, piece, Rays.ROOK_FIRST, Rays.ROOK_LAST, kinds, moves, count);
+            case Position.QUEEN:
+                return generateSlidingMoves(position, from, piece, Rays.QUEEN_FIRST, Rays.QUEEN_LAST, kinds, moves, count);
+            default:
+                return count;
+        }
+    }
+
+    /**
+     * Generates the moves of a pawn. A pawn steps forward one row on its level, or two
+     * from its starting row, or moves from the bottom or top level to the middle level
+     * on the same row and column. It captures one column to the side, either one row
+     * forward on its level or on the middle level from the bottom or top level.
+     *
+     * @param position the position to generate moves for
+     * @param from     the cell of the piece
+     * @param piece    the code of the piece
+     * @param kinds    the kinds of moves to generate, CAPTURES, QUIETS or both
+     * @param moves    the buffer to write the moves into
+     * @param count    the index in the buffer at which to start writing
+     * @return the index after the last move written
+     */
+    private static int generatePawnMoves(Position position, int from, byte piece, int kinds, int[] moves, int count) {
+        int colour = Position.colourOf(piece);
+
+        if ((kinds & CAPTURES) != 0) {
+            for (int level = 0; level < Position.LEVELS; level++) {
+                long targets = Attacks.pawn(colour, from, level) & position.occupancy(colour ^ 1, level);
+                while (targets != 0) {
+                    int to = (level << 6) | Long.numberOfTrailingZeros(targets);
+                    moves[count++] = Move.of(from, to, piece, position.get(to));
+                    targets &= targets - 1;
+                }
+            }
+        }
+        if ((kinds & QUIETS) == 0) {
+            return count;
+        }
+
+        int level = Position.levelOf(from);
+        int row = Position.rowOf(from);
+        int col = Position.colOf(from);
+        int direction = colour == Position.WHITE ? -1 : 1;
+        boolean firstMove = row == (colour == Position.WHITE ? 6 : 1);
+
+        int forwardRow = row + direction;
+        if (forwardRow >= 0 && forwardRow < Position.ROWS) {
+            int forward = Position.cell(level, forwardRow, col);
+            if (position.isEmpty(forward)) {
+                moves[count++] = Move.of(from, forward, piece, Position.EMPTY);
+                int doubleStep = Position.cell(level, row + 2 * direction, col);
+                if (firstMove && position.isEmpty(doubleStep)) {
+                    moves[count++] = Move.of(from, doubleStep, piece, Position.EMPTY);
+                }
+            }
+        }
+
+        if (level != 1) {
+            int up = Position.cell(1, row, col);
+            if (position.isEmpty(up)) {
+                moves[count++] = Move.of(from, up, piece, Position.EMPTY);
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Generates the moves of a knight or king from the precomputed attack masks.
+     *
+     * @param position the position to generate moves for
+     * @param from     the cell of the piece
+     * @param piece    the code of the piece
+     * @param king     true for the king masks, false for the knight masks
+     * @param kinds    the kinds of moves to generate, CAPTURES, QUIETS or both
+     * @param moves    the buffer to write the moves into
+     * @param count    the index in the buffer at which to start writing
+     * @return the index after the last move written
+     */
+    private static int generateLeaperMoves(Position position, int from, byte piece, boolean king, int kinds,
+                                           int[] moves, int count) {
+        int colour = Position.colourOf(piece);
+        for (int level = 0; level < Position.LEVELS; level++) {
+            long attacks = king ? Attacks.king(from, level) : Attacks.knight(from, level);
+            long targets = 0;
+            if ((kinds & CAPTURES) != 0) {
+                targets |= attacks & position.occupancy(colour ^ 1, level);
+            }
+            if ((kinds & QUIETS) != 0) {
+                targets |= attacks & ~position.occupancy(level);
+            }
+            while (targets != 0) {
+                int to = (level << 6) | Long.numberOfTrailingZeros(targets);
+                moves[count++] = Move.of(from, to, piece, position.get(to));
+                targets &= targets - 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Generates the moves of a sliding piece, walking each ray once up to the first piece on it.
+     *
+     * @param position the position to generate moves for
+     * @param from     the cell of the piece
+     * @param piece    the code of the piece
+     * @param firstDirection the first ray direction the piece may use
+     * @param lastDirection  the end of the range of ray directions, exclusive
+     * @param kinds    the kinds of moves to generate, CAPTURES, QUIETS or both
+     * @param moves    the buffer to write the moves into
+     * @param count    the index in the buffer at which to start writing
+     * @return the index after the last move written
+     */
+    private static int generateSlidingMoves(Position position, int from, byte piece, int firstDirection,
+                                            int lastDirection, int kinds, int[] moves, int count) {
+        int colour = Position.colourOf(piece);
+        boolean quiets = (kinds & QUIETS) != 0;
+        boolean captures = (kinds & CAPTURES) != 0;
+        for (int direction = firstDirection; direction < lastDirection; direction++) {
+            int length = Rays.length(from, direction);
+            for (int index = 0; index < length; index++) {
+                int to = Rays.target(from, direction, index);
+                byte target = position.get(to);
+                if (target == Position.EMPTY) {
+                    if (quiets) {
+                        moves[count++] = Move.of(from, to, piece, Position.EMPTY);
+                    }
+                } else {
+                    if (captures && Position.colourOf(target) != colour) {
+                        moves[count++] = Move.of(from, to, piece, target);
+                    }
+                    break;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks if a move follows the movement rules in a position, without generating the
+     * moves of the position. Used to check moves remembered from other positions, such as
+     * the move stored in the transposition table, before trying them.
+     *
+     * @param position the position the move would be made in
+     * @param move     the packed move
+     * @return true if the move is one generateMoves would produce, false otherwise
+     */
+    public static boolean isPseudoLegal(Position position, int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        byte piece = Move.piece(move);
+        byte captured = Move.captured(move);
+        int colour = position.getSideToMove();
+        if (move == Move.NONE || position.get(from) != piece || Position.colourOf(piece) != colour
+                || position.get(to) != captured
+                || (captured != Position.EMPTY && Position.colourOf(captured) == colour)) {
+            return false;
+        }
+
+        switch (Position.typeOf(piece)) {
+            case Position.PAWN:
+                return captured != Position.EMPTY
+                        ? (Attacks.pawn(colour, from, Position.levelOf(to)) & Attacks.bit(to)) != 0
+                        : isPawnStep(position, from, to, colour);
+            case Position.KNIGHT:
+                return Attacks.knightAttacks(from, to);
+            case Position.KING:
+                return Attacks.kingAttacks(from, to);
+            case Position.BISHOP:
+                return isSlide(position, from, to, Rays.BISHOP_FIRST, Rays.BISHOP_LAST);
+            case Position.ROOK:
+                return isSlide(position, from, to, Rays.ROOK_FIRST, Rays.ROOK_LAST);
+            case Position.QUEEN:
+                return isSlide(position, from, to, Rays.QUEEN_FIRST, Rays.QUEEN_LAST);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Checks if a pawn can step to an empty cell: one row forward, two rows forward from
+     * its starting row over an empty cell, or to the middle level from the bottom or top level.
+     *
+     * @param position the position to check
+     * @param from     the cell of the pawn
+     * @param to       the empty target cell
+     * @param colour   the colour of the pawn
+     * @return true if the step follows the pawn rules, false otherwise
+     */
+    private static boolean isPawnStep(Position position, int from, int to, int colour) {
+        int level = Position.levelOf(from);
+        int row = Position.rowOf(from);
+        int col = Position.colOf(from);
+        if (Position.colOf(to) != col) {
+            return false;
+        }
+        int direction = colour == Position.WHITE ? -1 : 1;
+        int toRow = Position.rowOf(to);
+        if (Position.levelOf(to) != level) {
+            return level != 1 && Position.levelOf(to) == 1 && toRow == row;
+        }
+        if (toRow == row + direction) {
+            return true;
+        }
+        return toRow == row + 2 * direction && row == (colour == Position.WHITE ? 6 : 1)
+                && position.isEmpty(Position.cell(level, row + direction, col));
+    }
+
+    /**
+     * Checks if a sliding piece can reach a cell along one of a range of ray directions.
+     *
+     * @param position       the position to check
+     * @param from           the cell of the piece
+     * @param to             the target cell
+     * @param firstDirection the first ray direction the piece may use
+     * @param lastDirection  the end of the range of ray directions, exclusive
+     * @return true if the target lies on an allowed ray with nothing in between, false otherwise
+     */
+    private static boolean isSlide(Position position, int from, int to, int firstDirection, int lastDirection) {
+        int direction = Rays.direction(from, to);
+        return direction >= firstDirection && direction < lastDirection
+                && Rays.isPathClear(position, from, to, direction);
+    }
+}
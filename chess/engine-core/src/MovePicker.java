@@ -0,0 +1,226 @@
+/**
+ * Hands out the legal moves of a position one at a time, best first by the usual move
+ * ordering heuristics, generating them in stages so that a cutoff early in the list
+ * saves the work of generating the rest:
+ * <ol>
+ *     <li>the move from the transposition table, before anything is generated;</li>
+ *     <li>the captures, most valuable victim first and least valuable attacker next (MVV-LVA);</li>
+ *     <li>the two killer moves of the ply, quiet moves that caused a cutoff in a sibling node;</li>
+ *     <li>the other quiet moves, by their history score.</li>
+ * </ol>
+ * The moves of each stage are sorted lazily, by picking the best remaining move each time.
+ * A search keeps one MovePicker per ply, as the picker of a ply is in use while the plies
+ * below it are searched.
+ * <p>
+ * For the quiescence search the picker can hand out only the captures, unless the side to
+ * move is in check, when every move is needed to find the escapes.
+ */
+public class MovePicker {
+    // The stages, in the order they are run.
+    private static final int HASH_MOVE = 0;
+    private static final int GENERATE_CAPTURES = 1;
+    private static final int CAPTURES = 2;
+    private static final int KILLERS = 3;
+    private static final int GENERATE_QUIETS = 4;
+    private static final int QUIETS = 5;
+    private static final int DONE = 6;
+
+    // The history scores of quiet moves, indexed by from * CELLS + to, shared with the search.
+    private final int[] history;
+    // The moves of the current stage and their ordering scores.
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private final int[] scores = new int[MoveGenerator.MAX_MOVES];
+    // The checks and pins of the position, for testing moves for legality.
+    private final KingSafety safety = new KingSafety();
+    // The position the moves are picked for.
+    private Position position;
+    // The move from the transposition table and the killer moves, or Move.NONE.
+    private int hashMove;
+    private int firstKiller;
+    private int secondKiller;
+    // The number of places to rotate the quiet moves by before sorting, to vary the order of equal moves.
+    private int quietShift;
+    // Whether the killers and quiet moves are picked after the captures.
+    private boolean quiets;
+    // The current stage.
+    private int stage;
+    // The next move of the current stage, and the end of its moves.
+    private int index;
+    private int end;
+
+    /**
+     * Constructs a move picker.
+     *
+     * @param history the history table of the search, indexed by from * CELLS + to
+     */
+    public MovePicker(int[] history) {
+        this.history = history;
+    }
+
+    /**
+     * Starts picking the moves of a position.
+     *
+     * @param position     the position, which must not change between calls to next except
+     *                     for moves that are taken back before the next call
+     * @param hashMove     the move from the transposition table, or Move.NONE
+     * @param firstKiller  the most recent killer move of the ply, or Move.NONE
+     * @param secondKiller the older killer move of the ply, or Move.NONE
+     * @param quietShift   the number of places to rotate the quiet moves by, 0 for none
+     */
+    public void init(Position position, int hashMove, int firstKiller, int secondKiller, int quietShift) {
+        this.position = position;
+        this.hashMove = hashMove;
+        this.firstKiller = firstKiller;
+        this.secondKiller = secondKiller;
+        this.quietShift = quietShift;
+        safety.compute(position, position.getSideToMove());
+        quiets = true;
+        stage = HASH_MOVE;
+    }
+
+    /**
+     * Starts picking the captures of a position, or every move if the side to move is in check.
+     *
+     * @param position the position, which must not change between calls to next except
+     *                 for moves that are taken back before the next call
+     */
+    public void initCaptures(Position position) {
+        init(position, Move.NONE, Move.NONE, Move.NONE, 0);
+        quiets = safety.isInCheck();
+        stage = GENERATE_CAPTURES;
+    }
+
+    /**
+     * Returns the next legal move.
+     *
+     * @return the packed move, or Move.NONE when every legal move has been returned
+     */
+    public int next() {
+        while (true) {
+            switch (stage) {
+                case HASH_MOVE:
+                    stage = GENERATE_CAPTURES;
+                    if (MoveGenerator.isPseudoLegal(position, hashMove) && safety.isLegal(position, hashMove)) {
+                        return hashMove;
+                    }
+                    break;
+
+                case GENERATE_CAPTURES:
+                    end = MoveGenerator.generateCaptures(position, moves, 0);
+                    for (int i = 0; i < end; i++) {
+                        // The victim counts far more than the attacker, which only breaks ties.
+                        scores[i] = Evaluator.value(Position.typeOf(Move.captured(moves[i])))
+                                - Position.typeOf(Move.piece(moves[i]));
+                    }
+                    index = 0;
+                    stage = CAPTURES;
+                    break;
+
+                case CAPTURES:
+                    while (index < end) {
+                        int move = pickBest();
+                        if (move != hashMove && safety.isLegal(position, move)) {
+                            return move;
+                        }
+                    }
+                    stage = quiets ? KILLERS : DONE;
+                    index = 0;
+                    break;
+
+                case KILLERS:
+                    while (index < 2) {
+                        int killer = index++ == 0 ? firstKiller : secondKiller;
+                        if (killer != hashMove && !Move.isCapture(killer)
+                                && MoveGenerator.isPseudoLegal(position, killer) && safety.isLegal(position, killer)) {
+                            return killer;
+                        }
+                    }
+                    stage = GENERATE_QUIETS;
+                    break;
+
+                case GENERATE_QUIETS:
+                    end = MoveGenerator.generateQuietMoves(position, moves, 0);
+                    if (quietShift > 0 && end > 1) {
+                        rotate(moves, end, quietShift % end);
+                    }
+                    for (int i = 0; i < end; i++) {
+                        scores[i] = history[Move.from(moves[i]) * Position.CELLS + Move.to(moves[i])];
+                    }
+                    index = 0;
+                    stage = QUIETS;
+                    break;
+
+                case QUIETS:
+                    while (index < end) {
+                        int move = pickBest();
+                        if (move != hashMove && move != firstKiller && move != secondKiller
+                                && safety.isLegal(position, move)) {
+                            return move;
+                        }
+                    }
+                    stage = DONE;
+                    break;
+
+                default:
+                    return Move.NONE;
+            }
+        }
+    }
+
+    /**
+     * Checks if the side to move is in check.
+     *
+     * @return true if the king of the side to move is attacked, false otherwise
+     */
+    public boolean isInCheck() {
+        return safety.isInCheck();
+    }
+
+    /**
+     * Moves the remaining move with the highest score to the front of the remaining moves,
+     * and returns it. The first of several equal moves is picked.
+     *
+     * @return the best remaining move
+     */
+    private int pickBest() {
+        int best = index;
+        for (int i = index + 1; i < end; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        int move = moves[best];
+        moves[best] = moves[index];
+        scores[best] = scores[index];
+        index++;
+        return move;
+    }
+
+    /**
+     * Rotates the start of a move buffer to the left in place, by reversing it in parts.
+     *
+     * @param buffer the move buffer
+     * @param count  the number of moves in the buffer
+     * @param shift  the number of places to rotate by
+     */
+    private static void rotate(int[] buffer, int count, int shift) {
+        reverse(buffer, 0, shift);
+        reverse(buffer, shift, count);
+        reverse(buffer, 0, count);
+    }
+
+    /**
+     * Reverses a range of a move buffer in place.
+     *
+     * @param buffer the move buffer
+     * @param start  the first index of the range
+     * @param end    the end of the range, exclusive
+     */
+    private static void reverse(int[] buffer, int start, int end) {
+        for (int i = start, j = end - 1; i < j; i++, j--) {
+            int move = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = move;
+        }
+    }
+}
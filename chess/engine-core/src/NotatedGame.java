@@ -0,0 +1,92 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A game read from notation text (see GameNotation): its tags, its moves, played out on
+ * a Position from the initial position, and its result. A game whose text could not be
+ * read holds the moves before the fault and a description of it.
+ */
+public class NotatedGame {
+    // The tags of the game, such as White and Black, in the order they were read.
+    private final Map<String, String> tags = new LinkedHashMap<>();
+    // The position after the moves of the game, with every move on its undo stack.
+    private final Position position = Position.initial();
+    // The number of the game in its input, from 0.
+    private final long number;
+    // The result of the game, one of the GameState result constants.
+    private int result = GameState.NO_RESULT;
+    // What was wrong with the text of the game, or null if it was read in full.
+    private String error;
+
+    /**
+     * Constructs an empty game at the initial position.
+     *
+     * @param number the number of the game in its input, from 0
+     */
+    public NotatedGame(long number) {
+        this.number = number;
+    }
+
+    /**
+     * Returns the number of the game in its input.
+     *
+     * @return the game number, from 0
+     */
+    public long getNumber() {
+        return number;
+    }
+
+    /**
+     * Returns the tags of the game.
+     *
+     * @return the tags by name, in the order they were read, which may be changed
+     */
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    /**
+     * Returns the position after the moves of the game.
+     *
+     * @return the position, with every move of the game on its undo stack
+     */
+    public Position getPosition() {
+        return position;
+    }
+
+    /**
+     * Returns the result of the game.
+     *
+     * @return one of the GameState result constants
+     */
+    public int getResult() {
+        return result;
+    }
+
+    /**
+     * Sets the result of the game.
+     *
+     * @param result one of the GameState result constants
+     */
+    public void setResult(int result) {
+        this.result = result;
+    }
+
+    /**
+     * Returns what was wrong with the text of the game.
+     *
+     * @return a description of the fault, or null if the game was read in full
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Records what was wrong with the text of the game.
+     *
+     * @param error a description of the fault
+     */
+    public void setError(String error) {
+        this.error = error;
+    }
+}
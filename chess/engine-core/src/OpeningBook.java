@@ -0,0 +1,191 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * An opening book: the moves played from opening positions in recorded games, with how
+ * often each was played and how it scored, read through memory mapping. The file is
+ * mapped read-only, so every engine process on a machine shares one copy of it in the
+ * page cache, and a lookup is a binary search that allocates nothing. A book is built by
+ * OpeningBookBuilder.
+ * <p>
+ * The file starts with a 16 byte header: the magic number and the format version, as
+ * ints, and the number of records, as a long. Fixed size records follow, sorted by key:
+ * <ul>
+ *     <li>the Zobrist hash of the position, a long;</li>
+ *     <li>the move, as the unsigned short code of GameArchive;</li>
+ *     <li>the number of games the move was played in, an int;</li>
+ *     <li>the half points the side playing the move scored in them, an int.</li>
+ * </ul>
+ * All numbers are big-endian. Lookups can be made from several threads at once.
+ */
+public class OpeningBook implements Closeable {
+    // The first int of every book, "3DCB" in ASCII.
+    public static final int MAGIC = 0x33444342;
+    // The version of the format.
+    public static final int VERSION = 1;
+    // The size of the header and of each record, in bytes.
+    public static final int HEADER_BYTES = 16;
+    public static final int RECORD_BYTES = 18;
+
+    // The offsets of the fields within a record.
+    private static final int MOVE_OFFSET = 8;
+    private static final int GAMES_OFFSET = 10;
+    private static final int POINTS_OFFSET = 14;
+
+    // The book file.
+    private final FileChannel channel;
+    // The mapped file.
+    private final MappedByteBuffer buffer;
+    // The number of records.
+    private final int records;
+    // The checks and pins of the position being looked up, one for each thread, as a KingSafety cannot be shared.
+    private final ThreadLocal<KingSafety> safety = ThreadLocal.withInitial(KingSafety::new);
+
+    /**
+     * Opens a book.
+     *
+     * @param path the book file
+     * @throws IOException if the file cannot be read or is not a book
+     */
+    public OpeningBook(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        long size = channel.size();
+        if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IOException(path + " is not an opening book");
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        long count = buffer.getLong(8);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                || count < 0 || HEADER_BYTES + count * RECORD_BYTES != size) {
+            channel.close();
+            throw new IOException(path + " is not an opening book of version " + VERSION);
+        }
+        records = (int) count;
+    }
+
+    /**
+     * Finds the first record of a position.
+     *
+     * @param key the Zobrist hash of the position
+     * @return the index of the first record with the key, or -1 if the position is not in the book
+     */
+    public int find(long key) {
+        int low = 0;
+        int high = records;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (key(middle) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low < records && key(low) == key ? low : -1;
+    }
+
+    /**
+     * Chooses a book move for a position. Each move is chosen in proportion to the number
+     * of games it was played in, or, without a source of randomness, the move played most
+     * is chosen. Moves that are not legal in the position, which can only come from a hash
+     * collision, are never chosen.
+     *
+     * @param position the position
+     * @param random   the source of randomness, or null to choose the move played most
+     * @return the packed move, or Move.NONE if the position is not in the book
+     */
+    public int probe(Position position, Random random) {
+        long key = position.getHash();
+        int first = find(key);
+        if (first < 0) {
+            return Move.NONE;
+        }
+        KingSafety kingSafety = safety.get();
+        kingSafety.compute(position, position.getSideToMove());
+        // Pick by reservoir sampling weighted by games, so the moves are walked only once.
+        int chosen = Move.NONE;
+        long totalGames = 0;
+        int mostGames = 0;
+        for (int record = first; record < records && key(record) == key; record++) {
+            int code = getMoveCode(record);
+            int from = GameArchive.from(code);
+            int to = GameArchive.to(code);
+            int move = Move.of(from, to, position.get(from), position.get(to));
+            if (!MoveGenerator.isPseudoLegal(position, move) || !kingSafety.isLegal(position, move)) {
+                continue;
+            }
+            int games = getGames(record);
+            totalGames += games;
+            boolean take = random == null ? games > mostGames : Math.floorMod(random.nextLong(), totalGames) < games;
+            if (take) {
+                chosen = move;
+                mostGames = games;
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * Returns the number of records.
+     *
+     * @return the record count
+     */
+    public int size() {
+        return records;
+    }
+
+    /**
+     * Returns the key of a record.
+     *
+     * @param record the index of the record
+     * @return the Zobrist hash of its position
+     */
+    public long key(int record) {
+        return buffer.getLong(HEADER_BYTES + record * RECORD_BYTES);
+    }
+
+    /**
+     * Returns the move of a record.
+     *
+     * @param record the index of the record
+     * @return the move code, as read by GameArchive.from and GameArchive.to
+     */
+    public int getMoveCode(int record) {
+        return Short.toUnsignedInt(buffer.getShort(HEADER_BYTES + record * RECORD_BYTES + MOVE_OFFSET));
+    }
+
+    /**
+     * Returns the number of games the move of a record was played in.
+     *
+     * @param record the index of the record
+     * @return the game count
+     */
+    public int getGames(int record) {
+        return buffer.getInt(HEADER_BYTES + record * RECORD_BYTES + GAMES_OFFSET);
+    }
+
+    /**
+     * Returns the half points the side playing the move of a record scored.
+     *
+     * @param record the index of the record
+     * @return the total of 2 for each win and 1 for each draw
+     */
+    public int getPoints(int record) {
+        return buffer.getInt(HEADER_BYTES + record * RECORD_BYTES + POINTS_OFFSET);
+    }
+
+    /**
+     * Closes the book. The mapping stays valid until it is garbage collected.
+     *
+     * @throws IOException if closing the file fails
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
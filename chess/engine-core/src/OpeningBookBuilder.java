@@ -0,0 +1,275 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Builds an OpeningBook from the games of archives (see GameArchive). Every game with a
+ * result is replayed through its opening, and each move played is counted under the
+ * Zobrist hash of the position it was played in, with the points it went on to score.
+ * The counts are kept in an open addressing hash table of primitive arrays, so millions
+ * of games can be counted without an object per move, and are then sorted by key and
+ * written as the fixed size records of the book.
+ */
+public class OpeningBookBuilder {
+    // The number of slots the table starts with. Must be a power of two.
+    private static final int INITIAL_CAPACITY = 1 << 16;
+    // The sorts of fewer records than this are finished by insertion sort.
+    private static final int INSERTION_SORT_LIMIT = 16;
+
+    // The number of plies of each game that are counted.
+    private final int maxPlies;
+    // The key, move code, game count and half points of each slot. A slot is empty while its game count is 0.
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int[] codes = new int[INITIAL_CAPACITY];
+    private int[] games = new int[INITIAL_CAPACITY];
+    private int[] points = new int[INITIAL_CAPACITY];
+    // The number of slots in use.
+    private int size;
+    // The position games are replayed on.
+    private final Position position = new Position();
+
+    /**
+     * Constructs a builder.
+     *
+     * @param maxPlies the number of plies of each game to count, at least 1
+     */
+    public OpeningBookBuilder(int maxPlies) {
+        if (maxPlies < 1) {
+            throw new IllegalArgumentException("A book needs at least 1 ply of each game, got " + maxPlies);
+        }
+        this.maxPlies = maxPlies;
+    }
+
+    /**
+     * Counts the opening of every game of an archive.
+     *
+     * @param archive the archive file
+     * @return the number of games counted
+     * @throws IOException if the archive cannot be read
+     */
+    public long addArchive(Path archive) throws IOException {
+        long count = 0;
+        try (GameArchiveReader reader = new GameArchiveReader(archive)) {
+            while (reader.next()) {
+                if (addGame(reader)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the opening of the current game of an archive, if it has a result.
+     *
+     * @param reader the archive, moved to the game
+     * @return true if the game was counted, false if it has no result
+     */
+    public boolean addGame(GameArchiveReader reader) {
+        int result = reader.getResult();
+        if (result != GameState.WHITE_WINS && result != GameState.DRAW && result != GameState.BLACK_WINS) {
+            return false;
+        }
+        position.setupInitial();
+        int plies = Math.min(maxPlies, reader.getPlies());
+        for (int ply = 0; ply < plies; ply++) {
+            int code = reader.getMoveCode(ply);
+            int movePoints = position.getSideToMove() == Position.WHITE ? result : GameState.WHITE_WINS - result;
+            add(position.getHash(), code, movePoints);
+            position.move(GameArchive.from(code), GameArchive.to(code));
+        }
+        return true;
+    }
+
+    /**
+     * Counts one move played in a game.
+     *
+     * @param key        the Zobrist hash of the position the move was played in
+     * @param code       the move code
+     * @param movePoints the half points the side playing the move scored in the game
+     */
+    private void add(long key, int code, int movePoints) {
+        int slot = find(key, code);
+        if (games[slot] == 0) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+                slot = find(key, code);
+            }
+            keys[slot] = key;
+            codes[slot] = code;
+            size++;
+        }
+        games[slot]++;
+        points[slot] += movePoints;
+    }
+
+    /**
+     * Finds the slot of a move, or the empty slot where it belongs, by linear probing.
+     *
+     * @param key  the Zobrist hash of the position
+     * @param code the move code
+     * @return the slot index
+     */
+    private int find(long key, int code) {
+        int mask = keys.length - 1;
+        // Zobrist keys are already random, so a multiply is enough to mix in the move.
+        int slot = (int) ((key ^ code * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        while (games[slot] != 0 && (keys[slot] != key || codes[slot] != code)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Doubles the number of slots, moving every counted move to its new slot.
+     */
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldCodes = codes;
+        int[] oldGames = games;
+        int[] oldPoints = points;
+        int capacity = oldKeys.length * 2;
+        if (capacity <= 0) {
+            throw new IllegalStateException("The book has too many moves to count");
+        }
+        keys = new long[capacity];
+        codes = new int[capacity];
+        games = new int[capacity];
+        points = new int[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldGames[i] != 0) {
+                int slot = find(oldKeys[i], oldCodes[i]);
+                keys[slot] = oldKeys[i];
+                codes[slot] = oldCodes[i];
+                games[slot] = oldGames[i];
+                points[slot] = oldPoints[i];
+            }
+        }
+    }
+
+    /**
+     * Writes the book, leaving out moves played in too few games to trust.
+     *
+     * @param path     the book file, which is replaced
+     * @param minGames the number of games a move must have been played in to be written
+     * @return the number of records written
+     * @throws IOException if the file cannot be written
+     */
+    public int write(Path path, int minGames) throws IOException {
+        int[] order = new int[size];
+        int count = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (games[slot] != 0 && games[slot] >= minGames) {
+                order[count++] = slot;
+            }
+        }
+        if (OpeningBook.HEADER_BYTES + (long) count * OpeningBook.RECORD_BYTES > Integer.MAX_VALUE) {
+            throw new IllegalStateException("A book holds at most 2 GB, raise the minimum number of games");
+        }
+        sort(order, 0, count - 1);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(OpeningBook.MAGIC);
+            out.writeInt(OpeningBook.VERSION);
+            out.writeLong(count);
+            for (int i = 0; i < count; i++) {
+                int slot = order[i];
+                out.writeLong(keys[slot]);
+                out.writeShort(codes[slot]);
+                out.writeInt(games[slot]);
+                out.writeInt(points[slot]);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Sorts slots by key and then by move code, with quicksort.
+     *
+     * @param order the slot indices
+     * @param low   the first index of the range to sort
+     * @param high  the last index of the range to sort
+     */
+    private void sort(int[] order, int low, int high) {
+        while (high - low >= INSERTION_SORT_LIMIT) {
+            int pivot = order[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (compare(order[i], pivot) < 0) {
+                    i++;
+                }
+                while (compare(order[j], pivot) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    int swap = order[i];
+                    order[i++] = order[j];
+                    order[j--] = swap;
+                }
+            }
+            // Recurse into the smaller part and loop on the larger, to bound the stack depth.
+            if (j - low < high - i) {
+                sort(order, low, j);
+                low = i;
+            } else {
+                sort(order, i, high);
+                high = j;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            int slot = order[i];
+            int j = i - 1;
+            while (j >= low && compare(order[j], slot) > 0) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = slot;
+        }
+    }
+
+    /**
+     * Compares two slots by key and then by move code.
+     *
+     * @param a the first slot
+     * @param b the second slot
+     * @return a negative number, zero or a positive number as the first slot sorts before, with or after the second
+     */
+    private int compare(int a, int b) {
+        int byKey = Long.compare(keys[a], keys[b]);
+        return byKey != 0 ? byKey : Integer.compare(codes[a], codes[b]);
+    }
+
+    /**
+     * Returns the number of different moves counted.
+     *
+     * @return the number of position and move pairs
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Builds a book. The arguments are the book file, the number of plies of each game to
+     * count, the number of games a move must have been played in, and one or more archives.
+     *
+     * @param args command line arguments
+     * @throws IOException if an archive cannot be read or the book cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.err.println("Usage: OpeningBookBuilder <book> <max plies> <min games> <archive>...");
+            return;
+        }
+        OpeningBookBuilder builder = new OpeningBookBuilder(Integer.parseInt(args[1]));
+        long games = 0;
+        for (int i = 3; i < args.length; i++) {
+            games += builder.addArchive(Paths.get(args[i]));
+        }
+        int records = builder.write(Paths.get(args[0]), Integer.parseInt(args[2]));
+        System.out.println("Counted " + games + " games and " + builder.size() + " moves, wrote " + records + " records");
+    }
+}
@@ -0,0 +1,224 @@
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Searches with several threads at once using the "lazy SMP" scheme: every thread runs
+ * its own iterative deepening Search of the same position, and they cooperate only
+ * through a shared transposition table. Helper threads start at staggered depths and
+ * try moves in different orders, so the results they store let the main thread skip
+ * or shorten much of its own work.
+ * <p>
+ * The result is taken from the thread that completed the deepest iteration, preferring
+ * the main thread. Only the main thread's limits decide when the search ends: once it
+ * finishes, the helpers are stopped.
+ */
+public class ParallelSearch {
+    // The shared transposition table.
+    private final TranspositionTable table;
+    // One search per thread, the main search first.
+    private final Search[] searches;
+    // The threads running the helper searches, or null for a single thread.
+    private final ExecutorService helpers;
+    // The best move and score of the last search.
+    private int bestMove;
+    private int bestScore;
+    // The depth of the deepest iteration completed by any thread in the last search.
+    private int completedDepth;
+    // The total number of positions visited by all threads in the last search.
+    private long nodes;
+    // The duration of the last search in nanoseconds.
+    private long elapsedNanos;
+
+    /**
+     * Constructs a parallel search.
+     *
+     * @param table   the transposition table shared by the threads
+     * @param threads the number of threads, at least 1
+     */
+    public ParallelSearch(TranspositionTable table, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("A search needs at least 1 thread, got " + threads);
+        }
+        this.table = table;
+        searches = new Search[threads];
+        for (int i = 0; i < threads; i++) {
+            searches[i] = new Search(table, i);
+        }
+        helpers = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Searches a position to a fixed depth. The main search runs on the calling thread.
+     *
+     * @param position the position to search, which is not changed
+     * @param maxDepth the depth of the last iteration
+     * @return the best move, or Move.NONE if the side to move has no moves
+     */
+    public int search(Position position, int maxDepth) {
+        return search(position, SearchLimits.depth(maxDepth));
+    }
+
+    /**
+     * Searches a position until the main search reaches one of the limits or is stopped.
+     * The main search runs on the calling thread. A stop requested since the last
+     * clearStop() ends the search at once.
+     *
+     * @param position the position to search, which is not changed
+     * @param limits   the limits of the search
+     * @return the best move, or Move.NONE if the side to move has no moves
+     */
+    public int search(Position position, SearchLimits limits) {
+        long start = System.nanoTime();
+        table.newSearch();
+
+        Future<?>[] running = new Future<?>[searches.length];
+        for (int i = 1; i < searches.length; i++) {
+            Search helper = searches[i];
+            Position copy = position.copy();
+            running[i] = helpers.submit(() -> helper.search(copy, limits));
+        }
+
+        searches[0].search(position.copy(), limits);
+
+        for (int i = 1; i < searches.length; i++) {
+            searches[i].stop();
+        }
+        for (int i = 1; i < searches.length; i++) {
+            try {
+                running[i].get();
+            } catch (Exception e) {
+                throw new IllegalStateException("A helper search failed", e);
+            }
+        }
+
+        Search best = searches[0];
+        nodes = 0;
+        for (Search search : searches) {
+            nodes += search.getNodes();
+            if (search.getCompletedDepth() > best.getCompletedDepth() && search.getBestMove() != Move.NONE) {
+                best = search;
+            }
+        }
+        bestMove = best.getBestMove();
+        bestScore = best.getBestScore();
+        completedDepth = best.getCompletedDepth();
+        elapsedNanos = System.nanoTime() - start;
+        return bestMove;
+    }
+
+    /**
+     * Sets the listener told about each iteration completed by the main thread. The node
+     * count it is given is the total over all threads, read while the helpers are still
+     * counting, so it is approximate.
+     *
+     * @param listener the listener, or null for none
+     */
+    public void setListener(Search.IterationListener listener) {
+        searches[0].setListener(listener == null ? null : (depth, score, bestMove, mainNodes) -> {
+            long total = mainNodes;
+            for (int i = 1; i < searches.length; i++) {
+                total += searches[i].getNodes();
+            }
+            listener.iterationCompleted(depth, score, bestMove, total);
+        });
+    }
+
+    /**
+     * Sets the endgame tablebases probed by every thread.
+     *
+     * @param tablebase the tablebases, or null for none
+     */
+    public void setTablebase(Tablebase tablebase) {
+        for (Search search : searches) {
+            search.setTablebase(tablebase);
+        }
+    }
+
+    /**
+     * Stops the search in progress on every thread. May be called from any thread.
+     */
+    public void stop() {
+        for (Search search : searches) {
+            search.stop();
+        }
+    }
+
+    /**
+     * Clears a stop request on every thread. Call before starting a search that may be
+     * stopped, from the thread that will stop it, so that a stop requested before the
+     * search starts is not lost.
+     */
+    public void clearStop() {
+        for (Search search : searches) {
+            search.clearStop();
+        }
+    }
+
+    /**
+     * Stops the helper threads. The search cannot be used afterwards.
+     */
+    public void shutdown() {
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the number of threads the search uses.
+     *
+     * @return the thread count
+     */
+    public int getThreads() {
+        return searches.length;
+    }
+
+    /**
+     * Returns the best move of the last search.
+     *
+     * @return the packed move, or Move.NONE
+     */
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * Returns the score of the best move of the last search.
+     *
+     * @return the score in centipawns for the side to move
+     */
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    /**
+     * Returns the depth of the deepest iteration completed in the last search.
+     *
+     * @return the completed depth
+     */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * Returns the number of positions visited by all threads in the last search.
+     *
+     * @return the total node count
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the speed of the last search over all threads.
+     *
+     * @return the number of positions visited per second
+     */
+    public long getNodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodes * 1_000_000_000L / elapsedNanos;
+    }
+}
@@ -0,0 +1,407 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the positions reachable from a position in a fixed number of moves ("perft").
+ * The counts check that move generation and make/unmake agree with known results,
+ * and the time taken measures the speed of move generation.
+ * <p>
+ * Only legal moves are counted.
+ * <p>
+ * In parallel mode each root move is counted by a separate fork-join task, and
+ * subtrees are cached by hash and depth in a table shared by all tasks without locks.
+ * <p>
+ * In verify mode the counts from the initial position are compared with recorded ones,
+ * and the positions of a shallow tree and of random games are checked one by one (see
+ * PositionChecker), so that a change to the move generator or to make/unmake that
+ * breaks them is caught.
+ */
+public class Perft {
+    // The default size of the subtree cache in megabytes.
+    public static final int DEFAULT_CACHE_MEGABYTES = 256;
+
+    // The number of positions after 0 to 4 moves from the initial position, as recorded
+    // when the move generator was last known to be correct.
+    private static final long[] INITIAL_COUNTS = {1, 66, 4_347, 323_484, 23_937_738};
+    // The depth of the tree from the initial position whose every position is checked.
+    private static final int CHECK_DEPTH = 3;
+    // The number and length of the random games whose positions are also checked, and their seed.
+    private static final int CHECK_GAMES = 100;
+    private static final int CHECK_PLIES = 200;
+    private static final long CHECK_SEED = 1;
+
+    // The cached counts, as pairs of (hash XOR data, data) with data = count << 8 | depth.
+    private final long[] cache;
+    // The mask selecting a cache entry from a hash.
+    private final int cacheMask;
+
+    /**
+     * Constructs a perft counter with no cache.
+     */
+    public Perft() {
+        cache = null;
+        cacheMask = 0;
+    }
+
+    /**
+     * Constructs a perft counter that caches subtree counts.
+     *
+     * @param cacheMegabytes the size of the cache in megabytes, at least 1
+     */
+    public Perft(int cacheMegabytes) {
+        long entries = Long.highestOneBit((long) cacheMegabytes * 1024 * 1024 / (2 * Long.BYTES));
+        entries = Math.min(entries, 1L << 29);
+        cache = new long[(int) entries * 2];
+        cacheMask = (int) entries - 1;
+    }
+
+    /**
+     * Counts the positions reached after a number of moves.
+     *
+     * @param position the position to count from, which is restored before returning
+     * @param depth    the number of moves
+     * @return the number of positions reached
+     */
+    public long perft(Position position, int depth) {
+        return count(position, depth, new int[Math.max(depth, 1)][MoveGenerator.MAX_MOVES], new KingSafety());
+    }
+
+    /**
+     * Counts the positions reached after a number of moves, using one move buffer per ply.
+     *
+     * @param position the position to count from
+     * @param depth    the number of moves
+     * @param buffers  the move buffers, at least one per remaining ply
+     * @param safety   the king safety used to test the moves for legality
+     * @return the number of positions reached
+     */
+    private long count(Position position, int depth, int[][] buffers, KingSafety safety) {
+        if (depth == 0) {
+            return 1;
+        }
+        long hash = position.getHash();
+        int slot = ((int) (hash >>> 32) & cacheMask) * 2;
+        if (cache != null && depth > 1) {
+            long data = cache[slot + 1];
+            if ((cache[slot] ^ data) == hash && (data & 0xFF) == depth) {
+                return data >>> 8;
+            }
+        }
+
+        int[] moves = buffers[depth - 1];
+        int count = MoveGenerator.generateLegalMoves(position, safety, moves, 0);
+        long nodes;
+        if (depth == 1) {
+            // Every legal move leads to a position, so there is no need to make them.
+            nodes = count;
+        } else {
+            nodes = 0;
+            for (int i = 0; i < count; i++) {
+                position.makeMove(moves[i]);
+                nodes += count(position, depth - 1, buffers, safety);
+                position.unmakeMove();
+            }
+        }
+
+        if (cache != null && depth > 1) {
+            long data = (nodes << 8) | depth;
+            cache[slot] = hash ^ data;
+            cache[slot + 1] = data;
+        }
+        return nodes;
+    }
+
+    /**
+     * Counts the positions reached after each root move, printing one line per move.
+     *
+     * @param position the position to count from
+     * @param depth    the number of moves, at least 1
+     * @return the total number of positions reached
+     */
+    public long divide(Position position, int depth) {
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateLegalMoves(position, new KingSafety(), moves, 0);
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            position.makeMove(moves[i]);
+            long nodes = perft(position, depth - 1);
+            position.unmakeMove();
+            System.out.println(Move.toText(moves[i]) + ": " + nodes);
+            total += nodes;
+        }
+        return total;
+    }
+
+    /**
+     * Counts the positions reached after a number of moves, counting each root move in a
+     * separate fork-join task.
+     *
+     * @param position the position to count from, which is not changed
+     * @param depth    the number of moves, at least 1
+     * @param pool     the pool to run the tasks in
+     * @param divide   true to print the count of each root move
+     * @return the number of positions reached
+     */
+    public long parallelPerft(Position position, int depth, ForkJoinPool pool, boolean divide) {
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateLegalMoves(position, new KingSafety(), moves, 0);
+
+        RootMoveTask[] tasks = new RootMoveTask[count];
+        for (int i = 0; i < count; i++) {
+            tasks[i] = new RootMoveTask(position, moves[i], depth - 1);
+            pool.execute(tasks[i]);
+        }
+
+        long total = 0;
+        for (RootMoveTask task : tasks) {
+            long nodes = task.join();
+            if (divide) {
+                System.out.println(Move.toText(task.move) + ": " + nodes);
+            }
+            total += nodes;
+        }
+        return total;
+    }
+
+    /**
+     * A fork-join task counting the positions below one root move.
+     */
+    private class RootMoveTask extends RecursiveTask<Long> {
+        // The version of the serialized form, which is never used but ForkJoinTask is Serializable.
+        private static final long serialVersionUID = 1L;
+
+        // The position after the root move, owned by this task.
+        private final Position position;
+        // The root move.
+        private final int move;
+        // The number of moves left to count.
+        private final int depth;
+
+        /**
+         * Constructs a task for a root move.
+         *
+         * @param root  the position before the move, which is copied
+         * @param move  the root move
+         * @param depth the number of moves to count after the root move
+         */
+        RootMoveTask(Position root, int move, int depth) {
+            this.position = root.copy();
+            this.position.makeMove(move);
+            this.move = move;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            return perft(position, depth);
+        }
+    }
+
+    /**
+     * Checks the move generator: compares the counts from the initial position with the
+     * recorded ones, and checks every position of a shallow tree and of some random games
+     * with a PositionChecker. Prints the counts and each failure.
+     *
+     * @return true if every check passed, false otherwise
+     */
+    public static boolean verify() {
+        boolean passed = true;
+        Position position = Position.initial();
+        for (int depth = 1; depth < INITIAL_COUNTS.length; depth++) {
+            long nodes = new Perft().perft(position, depth);
+            boolean matches = nodes == INITIAL_COUNTS[depth];
+            System.out.println("perft(" + depth + ") = " + nodes + (matches ? "" : ", expected " + INITIAL_COUNTS[depth]));
+            passed &= matches;
+        }
+
+        PositionChecker checker = new PositionChecker();
+        checker.checkTree(position, CHECK_DEPTH);
+        Random random = new Random(CHECK_SEED);
+        for (int game = 0; game < CHECK_GAMES; game++) {
+            checker.checkGame(random, CHECK_PLIES);
+        }
+        System.out.println("Positions checked: " + checker.checked + ", failures: " + checker.failures);
+        return passed && checker.failures == 0;
+    }
+
+    /**
+     * Checks positions against results computed the slow, obvious way: the legal moves
+     * against the pseudo-legal moves that do not leave the king attacked once made, check
+     * detection against a search for attackers of the king, and the hash and score the
+     * position keeps up to date against Zobrist.compute and Evaluator.compute. Also checks
+     * that unmaking a move restores the hash and score.
+     */
+    private static class PositionChecker {
+        // The most failures printed; the rest are only counted.
+        private static final int MAX_REPORTED = 10;
+
+        // The buffers of the moves of the position being checked.
+        private final int[] legal = new int[MoveGenerator.MAX_MOVES];
+        private final int[] pseudoLegal = new int[MoveGenerator.MAX_MOVES];
+        // The move buffers of the tree walk, one per remaining ply.
+        private final int[][] buffers = new int[CHECK_DEPTH][MoveGenerator.MAX_MOVES];
+        private final KingSafety safety = new KingSafety();
+        // The number of positions checked and of failed checks.
+        private long checked;
+        private long failures;
+
+        /**
+         * Checks a position and every position reachable from it in a number of moves.
+         *
+         * @param position the position, which is restored before returning
+         * @param depth    the number of moves, at most CHECK_DEPTH
+         */
+        private void checkTree(Position position, int depth) {
+            check(position);
+            if (depth == 0) {
+                return;
+            }
+            int[] moves = buffers[depth - 1];
+            int count = MoveGenerator.generateLegalMoves(position, safety, moves, 0);
+            long hash = position.getHash();
+            int score = position.getScore();
+            for (int i = 0; i < count; i++) {
+                position.makeMove(moves[i]);
+                checkTree(position, depth - 1);
+                position.unmakeMove();
+                if (position.getHash() != hash || position.getScore() != score) {
+                    fail(position, "unmaking " + Move.toText(moves[i]) + " did not restore the hash and score");
+                }
+            }
+        }
+
+        /**
+         * Plays a random game from the initial position, preferring captures so that the
+         * game reaches checks and sparse endings, and checks each of its positions.
+         *
+         * @param random the source of the moves
+         * @param plies  the most moves to play
+         */
+        private void checkGame(Random random, int plies) {
+            Position position = Position.initial();
+            for (int ply = 0; ply < plies; ply++) {
+                check(position);
+                int count = MoveGenerator.generateLegalMoves(position, safety, legal, 0);
+                if (count == 0) {
+                    break;
+                }
+                int move = legal[random.nextInt(count)];
+                for (int i = 0; i < count; i++) {
+                    if (Move.isCapture(legal[i]) && random.nextInt(3) == 0) {
+                        move = legal[i];
+                        break;
+                    }
+                }
+                position.makeMove(move);
+            }
+            while (position.getMoveCount() > 0) {
+                position.unmakeMove();
+            }
+            if (position.getHash() != Position.initial().getHash() || position.getScore() != 0) {
+                fail(position, "unmaking a game did not restore the initial hash and score");
+            }
+        }
+
+        /**
+         * Checks one position.
+         *
+         * @param position the position, which is restored before returning
+         */
+        private void check(Position position) {
+            checked++;
+            int side = position.getSideToMove();
+            int legalCount = MoveGenerator.generateLegalMoves(position, safety, legal, 0);
+            int pseudoCount = MoveGenerator.generateMoves(position, pseudoLegal, 0);
+            int bruteCount = 0;
+            for (int i = 0; i < pseudoCount; i++) {
+                position.makeMove(pseudoLegal[i]);
+                int king = position.findKing(side);
+                boolean isLegal = king < 0 || !KingSafety.isAttacked(position, king, side ^ 1, -1);
+                position.unmakeMove();
+                if (isLegal) {
+                    pseudoLegal[bruteCount++] = pseudoLegal[i];
+                }
+            }
+            Arrays.sort(legal, 0, legalCount);
+            Arrays.sort(pseudoLegal, 0, bruteCount);
+            if (!Arrays.equals(legal, 0, legalCount, pseudoLegal, 0, bruteCount)) {
+                fail(position, legalCount + " legal moves generated, " + bruteCount + " found by brute force");
+            }
+            if (safety.isInCheck() != KingSafety.isInCheck(position)) {
+                fail(position, "check detection disagrees with the attacks on the king");
+            }
+            if (position.getHash() != Zobrist.compute(position)) {
+                fail(position, "the incremental hash differs from the hash computed from scratch");
+            }
+            if (position.getScore() != Evaluator.compute(position)) {
+                fail(position, "the incremental score differs from the score computed from scratch");
+            }
+        }
+
+        /**
+         * Counts a failed check and prints the first few.
+         *
+         * @param position the position that failed
+         * @param message  what went wrong
+         */
+        private void fail(Position position, String message) {
+            if (failures++ < MAX_REPORTED) {
+                System.out.println("FAILED " + PositionNotation.toText(position) + ": " + message);
+            }
+        }
+    }
+
+    /**
+     * Runs perft from the initial position and prints the count, time and speed, or
+     * checks the move generator with verify, exiting with status 1 if a check fails.
+     * Usage: Perft depth [divide] [parallel [threads]], or Perft verify
+     *
+     * @param args command line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: Perft depth [divide] [parallel [threads]], or Perft verify");
+            return;
+        }
+        if (args[0].equals("verify")) {
+            if (!verify()) {
+                System.exit(1);
+            }
+            return;
+        }
+        int depth = Integer.parseInt(args[0]);
+        boolean divide = false;
+        boolean parallel = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("divide")) {
+                divide = true;
+            } else if (args[i].equals("parallel")) {
+                parallel = true;
+                if (i + 1 < args.length && args[i + 1].matches("\\d+")) {
+                    threads = Integer.parseInt(args[++i]);
+                }
+            }
+        }
+
+        Position position = Position.initial();
+        long start = System.nanoTime();
+        long nodes;
+        if (parallel && depth > 0) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            nodes = new Perft(DEFAULT_CACHE_MEGABYTES).parallelPerft(position, depth, pool, divide);
+            pool.shutdown();
+        } else if (divide && depth > 0) {
+            nodes = new Perft().divide(position, depth);
+        } else {
+            nodes = new Perft().perft(position, depth);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println("Nodes: " + nodes);
+        System.out.println("Time: " + elapsed / 1_000_000 + " ms");
+        System.out.println("Nodes per second: " + (elapsed == 0 ? 0 : nodes * 1_000_000_000L / elapsed));
+    }
+}
@@ -0,0 +1,587 @@
+import java.util.Arrays;
+
+/**
+ * A headless model of a 3D chess position. The 3 levels of 8x8 boards are stored
+ * as a flat mailbox of 192 piece codes, together with the side to move and the
+ * move counters. Alongside the mailbox it keeps bitboards: one 64-bit long per
+ * level for each piece code and for each colour, with bit row * 8 + col set for
+ * every occupied cell of that level. It has no dependency on Swing, so positions
+ * can be created, copied and examined without an AWT toolkit.
+ * <p>
+ * Moves are applied in place with makeMove and taken back with unmakeMove. The
+ * state needed to reverse each move is pushed onto an undo stack of preallocated
+ * arrays, so making and unmaking moves does not allocate.
+ * <p>
+ * Every position also carries a 64-bit Zobrist hash (see Zobrist), updated with
+ * an XOR whenever a cell or the side to move changes. The undo stack keeps the hash
+ * before each move, which is used to detect repeated positions.
+ * <p>
+ * In the same way it keeps the static score of the pieces (see Evaluator), updated
+ * whenever a cell changes, so evaluating a position costs nothing per piece.
+ */
+public class Position {
+    // Dimensions of the board.
+    public static final int LEVELS = 3;
+    public static final int ROWS = 8;
+    public static final int COLS = 8;
+    public static final int CELLS = LEVELS * ROWS * COLS;
+
+    // The two sides.
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    // Piece types. A piece code is the type with the colour stored in bit 3.
+    public static final byte EMPTY = 0;
+    public static final byte PAWN = 1;
+    public static final byte KNIGHT = 2;
+    public static final byte BISHOP = 3;
+    public static final byte ROOK = 4;
+    public static final byte QUEEN = 5;
+    public static final byte KING = 6;
+
+    // The letters used to display each piece type, indexed by type.
+    private static final String SYMBOLS = ".PNBRQK";
+    // The initial capacity of the undo stack, enough for a long game plus a deep search.
+    private static final int UNDO_CAPACITY = 1024;
+
+    // The piece code on each cell, indexed by level * 64 + row * 8 + col.
+    private final byte[] cells;
+    // The cells holding each piece code, indexed by code * LEVELS + level.
+    private final long[] pieceBoards;
+    // The cells holding pieces of each colour, indexed by colour * LEVELS + level.
+    private final long[] colourBoards;
+    // The side whose turn it is.
+    private int sideToMove;
+    // The number of moves since the last capture or pawn move.
+    private int halfmoveClock;
+    // The number of the current full move, starting at 1.
+    private int fullmoveNumber;
+    // The Zobrist hash of the position.
+    private long hash;
+    // The sum of the material and piece-square scores of the pieces, from white's point of view.
+    private int score;
+    // The moves made so far, most recent last.
+    private int[] undoMoves;
+    // The halfmove clock before each move in undoMoves.
+    private int[] undoHalfmoveClocks;
+    // The hash before each move in undoMoves.
+    private long[] undoHashes;
+    // The number of moves on the undo stack.
+    private int undoCount;
+
+    /**
+     * Constructs an empty position with white to move.
+     */
+    public Position() {
+        cells = new byte[CELLS];
+        pieceBoards = new long[16 * LEVELS];
+        colourBoards = new long[2 * LEVELS];
+        sideToMove = WHITE;
+        fullmoveNumber = 1;
+        undoMoves = new int[UNDO_CAPACITY];
+        undoHalfmoveClocks = new int[UNDO_CAPACITY];
+        undoHashes = new long[UNDO_CAPACITY];
+    }
+
+    /**
+     * Constructs a copy of another position.
+     *
+     * @param other the position to copy
+     */
+    private Position(Position other) {
+        cells = other.cells.clone();
+        pieceBoards = other.pieceBoards.clone();
+        colourBoards = other.colourBoards.clone();
+        sideToMove = other.sideToMove;
+        halfmoveClock = other.halfmoveClock;
+        fullmoveNumber = other.fullmoveNumber;
+        hash = other.hash;
+        score = other.score;
+        undoMoves = other.undoMoves.clone();
+        undoHalfmoveClocks = other.undoHalfmoveClocks.clone();
+        undoHashes = other.undoHashes.clone();
+        undoCount = other.undoCount;
+    }
+
+    /**
+     * Creates a position with the pieces in their initial positions.
+     *
+     * @return the starting position
+     */
+    public static Position initial() {
+        Position position = new Position();
+        position.setupInitial();
+        return position;
+    }
+
+    /**
+     * Places the pieces in their initial positions on the bottom level,
+     * with black on rows 0 and 1 and white on rows 6 and 7.
+     */
+    public void setupInitial() {
+        clear();
+        byte[] backRank = {ROOK, BISHOP, KNIGHT, KING, QUEEN, KNIGHT, BISHOP, ROOK};
+        for (int col = 0; col < COLS; col++) {
+            set(cell(0, 0, col), piece(backRank[col], BLACK));
+            set(cell(0, 1, col), piece(PAWN, BLACK));
+            set(cell(0, 6, col), piece(PAWN, WHITE));
+            set(cell(0, 7, col), piece(backRank[col], WHITE));
+        }
+    }
+
+    /**
+     * Removes every piece and resets the side to move and move counters.
+     */
+    public void clear() {
+        // An empty board with white to move has a zero hash and score, as EMPTY has zero keys and scores.
+        Arrays.fill(cells, EMPTY);
+        Arrays.fill(pieceBoards, 0);
+        Arrays.fill(colourBoards, 0);
+        hash = 0;
+        score = 0;
+        sideToMove = WHITE;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        undoCount = 0;
+    }
+
+    /**
+     * Returns a copy of this position that can be changed independently.
+     *
+     * @return the copy
+     */
+    public Position copy() {
+        return new Position(this);
+    }
+
+    /**
+     * Computes the cell index of a level, row and column.
+     *
+     * @param level the level index
+     * @param row   the row index
+     * @param col   the column index
+     * @return the cell index, from 0 to 191
+     */
+    public static int cell(int level, int row, int col) {
+        return (level << 6) | (row << 3) | col;
+    }
+
+    /**
+     * Checks if a level, row and column lie on the board.
+     *
+     * @param level the level index
+     * @param row   the row index
+     * @param col   the column index
+     * @return true if the coordinates are on the board, false otherwise
+     */
+    public static boolean onBoard(int level, int row, int col) {
+        return level >= 0 && level < LEVELS && row >= 0 && row < ROWS && col >= 0 && col < COLS;
+    }
+
+    /**
+     * Returns the level of a cell.
+     *
+     * @param cell the cell index
+     * @return the level index
+     */
+    public static int levelOf(int cell) {
+        return cell >> 6;
+    }
+
+    /**
+     * Returns the row of a cell.
+     *
+     * @param cell the cell index
+     * @return the row index
+     */
+    public static int rowOf(int cell) {
+        return (cell >> 3) & 7;
+    }
+
+    /**
+     * Returns the column of a cell.
+     *
+     * @param cell the cell index
+     * @return the column index
+     */
+    public static int colOf(int cell) {
+        return cell & 7;
+    }
+
+    /**
+     * Returns the name of a cell: the level index, then the column as a letter from 'a'
+     * and the row as a rank from '8' at row 0 down to '1' at row 7, for example "0e2".
+     *
+     * @param cell the cell index
+     * @return the three character name of the cell
+     */
+    public static String cellName(int cell) {
+        return "" + (char) ('0' + levelOf(cell)) + (char) ('a' + colOf(cell)) + (char) ('8' - rowOf(cell));
+    }
+
+    /**
+     * Reads a cell name written by cellName: a level digit, a column letter and a rank digit.
+     *
+     * @param text   the text to read from
+     * @param offset the index of the level digit
+     * @return the cell index, or -1 if the three characters are not a cell name
+     */
+    public static int parseCell(CharSequence text, int offset) {
+        if (offset < 0 || offset + 3 > text.length()) {
+            return -1;
+        }
+        int level = text.charAt(offset) - '0';
+        int col = text.charAt(offset + 1) - 'a';
+        int row = '8' - text.charAt(offset + 2);
+        return onBoard(level, row, col) ? cell(level, row, col) : -1;
+    }
+
+    /**
+     * Builds a piece code from a piece type and colour.
+     *
+     * @param type   the piece type
+     * @param colour the colour, WHITE or BLACK
+     * @return the piece code
+     */
+    public static byte piece(int type, int colour) {
+        return (byte) (type | (colour << 3));
+    }
+
+    /**
+     * Returns the type of a piece code.
+     *
+     * @param piece the piece code
+     * @return the piece type, or EMPTY
+     */
+    public static int typeOf(int piece) {
+        return piece & 7;
+    }
+
+    /**
+     * Returns the colour of a piece code. The result is meaningless for EMPTY.
+     *
+     * @param piece the piece code
+     * @return WHITE or BLACK
+     */
+    public static int colourOf(int piece) {
+        return piece >> 3;
+    }
+
+    /**
+     * Returns the letter used to display a piece code.
+     *
+     * @param piece the piece code
+     * @return the letter of the piece type, or '.' for an empty cell
+     */
+    public static char symbolOf(int piece) {
+        return SYMBOLS.charAt(typeOf(piece));
+    }
+
+    /**
+     * Returns the piece code on a cell.
+     *
+     * @param cell the cell index
+     * @return the piece code, or EMPTY
+     */
+    public byte get(int cell) {
+        return cells[cell];
+    }
+
+    /**
+     * Checks if a cell is empty.
+     *
+     * @param cell the cell index
+     * @return true if no piece is on the cell, false otherwise
+     */
+    public boolean isEmpty(int cell) {
+        return cells[cell] == EMPTY;
+    }
+
+    /**
+     * Places a piece code on a cell, replacing whatever was there.
+     *
+     * @param cell  the cell index
+     * @param piece the piece code, or EMPTY to clear the cell
+     */
+    public void set(int cell, byte piece) {
+        int level = cell >> 6;
+        long bit = 1L << (cell & 63);
+        byte old = cells[cell];
+        if (old != EMPTY) {
+            pieceBoards[old * LEVELS + level] &= ~bit;
+            colourBoards[colourOf(old) * LEVELS + level] &= ~bit;
+        }
+        if (piece != EMPTY) {
+            pieceBoards[piece * LEVELS + level] |= bit;
+            colourBoards[colourOf(piece) * LEVELS + level] |= bit;
+        }
+        cells[cell] = piece;
+        hash ^= Zobrist.piece(old, cell) ^ Zobrist.piece(piece, cell);
+        score += Evaluator.pieceSquare(piece, cell) - Evaluator.pieceSquare(old, cell);
+    }
+
+    /**
+     * Returns the bitboard of the cells on one level holding a piece code.
+     *
+     * @param piece the piece code
+     * @param level the level index
+     * @return the mask of cells on the level holding the piece
+     */
+    public long pieces(int piece, int level) {
+        return pieceBoards[piece * LEVELS + level];
+    }
+
+    /**
+     * Returns the bitboard of the cells on one level holding pieces of a colour.
+     *
+     * @param colour WHITE or BLACK
+     * @param level  the level index
+     * @return the mask of cells on the level holding pieces of the colour
+     */
+    public long occupancy(int colour, int level) {
+        return colourBoards[colour * LEVELS + level];
+    }
+
+    /**
+     * Returns the bitboard of the occupied cells on one level.
+     *
+     * @param level the level index
+     * @return the mask of cells on the level holding any piece
+     */
+    public long occupancy(int level) {
+        return colourBoards[level] | colourBoards[LEVELS + level];
+    }
+
+    /**
+     * Moves the piece on one cell to another, capturing anything on the destination,
+     * and passes the turn to the other side.
+     *
+     * @param from the cell the piece moves from
+     * @param to   the cell the piece moves to
+     */
+    public void move(int from, int to) {
+        makeMove(Move.of(from, to, cells[from], cells[to]));
+    }
+
+    /**
+     * Applies a move in place and passes the turn to the other side.
+     * The move can be taken back with unmakeMove.
+     *
+     * @param move the packed move, as produced by MoveGenerator
+     */
+    public void makeMove(int move) {
+        if (undoCount == undoMoves.length) {
+            growUndoStack();
+        }
+        undoMoves[undoCount] = move;
+        undoHalfmoveClocks[undoCount] = halfmoveClock;
+        undoHashes[undoCount] = hash;
+        undoCount++;
+
+        byte piece = Move.piece(move);
+        set(Move.from(move), EMPTY);
+        set(Move.to(move), piece);
+
+        halfmoveClock = (Move.isCapture(move) || typeOf(piece) == PAWN) ? 0 : halfmoveClock + 1;
+        if (sideToMove == BLACK) {
+            fullmoveNumber++;
+        }
+        sideToMove ^= 1;
+        hash ^= Zobrist.side();
+    }
+
+    /**
+     * Takes back the last move made with makeMove, restoring the position exactly.
+     */
+    public void unmakeMove() {
+        undoCount--;
+        int move = undoMoves[undoCount];
+        halfmoveClock = undoHalfmoveClocks[undoCount];
+
+        sideToMove ^= 1;
+        hash ^= Zobrist.side();
+        if (sideToMove == BLACK) {
+            fullmoveNumber--;
+        }
+
+        set(Move.to(move), Move.captured(move));
+        set(Move.from(move), Move.piece(move));
+    }
+
+    /**
+     * Doubles the capacity of the undo stack. This only happens in games longer than
+     * the initial capacity, never on every move.
+     */
+    private void growUndoStack() {
+        undoMoves = Arrays.copyOf(undoMoves, undoMoves.length * 2);
+        undoHalfmoveClocks = Arrays.copyOf(undoHalfmoveClocks, undoHalfmoveClocks.length * 2);
+        undoHashes = Arrays.copyOf(undoHashes, undoHashes.length * 2);
+    }
+
+    /**
+     * Returns the number of moves that can be taken back.
+     *
+     * @return the number of moves on the undo stack
+     */
+    public int getMoveCount() {
+        return undoCount;
+    }
+
+    /**
+     * Returns a move on the undo stack, so that the moves of a game can be read back.
+     *
+     * @param index the number of the move, from 0 for the first move to getMoveCount() - 1
+     * @return the packed move
+     */
+    public int getMove(int index) {
+        if (index < 0 || index >= undoCount) {
+            throw new IndexOutOfBoundsException("Move " + index + " of " + undoCount);
+        }
+        return undoMoves[index];
+    }
+
+    /**
+     * Returns the last move made.
+     *
+     * @return the packed move, or Move.NONE if no move has been made
+     */
+    public int getLastMove() {
+        return undoCount == 0 ? Move.NONE : undoMoves[undoCount - 1];
+    }
+
+    /**
+     * Checks if a side still has its king on the board.
+     *
+     * @param colour WHITE or BLACK
+     * @return true if a king of the colour is on any level, false otherwise
+     */
+    public boolean hasKing(int colour) {
+        int king = piece(KING, colour) * LEVELS;
+        return (pieceBoards[king] | pieceBoards[king + 1] | pieceBoards[king + 2]) != 0;
+    }
+
+    /**
+     * Finds the king of a side.
+     *
+     * @param colour WHITE or BLACK
+     * @return the cell of the king, or -1 if the side has no king
+     */
+    public int findKing(int colour) {
+        int king = piece(KING, colour) * LEVELS;
+        for (int level = 0; level < LEVELS; level++) {
+            if (pieceBoards[king + level] != 0) {
+                return (level << 6) | Long.numberOfTrailingZeros(pieceBoards[king + level]);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the side whose turn it is.
+     *
+     * @return WHITE or BLACK
+     */
+    public int getSideToMove() {
+        return sideToMove;
+    }
+
+    /**
+     * Sets the side whose turn it is.
+     *
+     * @param sideToMove WHITE or BLACK
+     */
+    public void setSideToMove(int sideToMove) {
+        if (this.sideToMove != sideToMove) {
+            hash ^= Zobrist.side();
+        }
+        this.sideToMove = sideToMove;
+    }
+
+    /**
+     * Returns the Zobrist hash of the position.
+     *
+     * @return the 64-bit hash of the pieces and the side to move
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Returns the static score of the pieces: their material and piece-square values.
+     *
+     * @return the score in centipawns from white's point of view
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Checks if the position has occurred before. Only positions since the last capture
+     * or pawn move are compared, as no earlier position can recur, and only those with
+     * the same side to move.
+     *
+     * @return true if an earlier position on the undo stack has the same hash, false otherwise
+     */
+    public boolean isRepetition() {
+        int oldest = Math.max(0, undoCount - halfmoveClock);
+        for (int index = undoCount - 2; index >= oldest; index -= 2) {
+            if (undoHashes[index] == hash) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Counts how many times the position has occurred before, comparing the same
+     * positions as isRepetition. A count of 2 means the position has occurred three times.
+     *
+     * @return the number of earlier positions on the undo stack with the same hash
+     */
+    public int countRepetitions() {
+        int oldest = Math.max(0, undoCount - halfmoveClock);
+        int count = 0;
+        for (int index = undoCount - 2; index >= oldest; index -= 2) {
+            if (undoHashes[index] == hash) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of moves since the last capture or pawn move.
+     *
+     * @return the halfmove clock
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * Sets the number of moves since the last capture or pawn move.
+     *
+     * @param halfmoveClock the halfmove clock
+     */
+    public void setHalfmoveClock(int halfmoveClock) {
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    /**
+     * Returns the number of the current full move.
+     *
+     * @return the full move number, starting at 1
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * Sets the number of the current full move.
+     *
+     * @param fullmoveNumber the full move number
+     */
+    public void setFullmoveNumber(int fullmoveNumber) {
+        this.fullmoveNumber = fullmoveNumber;
+    }
+}
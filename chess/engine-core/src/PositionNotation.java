@@ -0,0 +1,374 @@
+import java.util.Arrays;
+
+/**
+ * Reads and writes positions as text in a notation modelled on FEN. The three levels are
+ * written from level 0 up, separated by "|", each as eight ranks from rank 8 (row 0)
+ * down, separated by "/". A rank lists its cells from column a: a letter for a piece,
+ * upper case for white and lower case for black, and a digit for a run of empty cells.
+ * The side to move, "w" or "b", the halfmove clock and the fullmove number follow,
+ * separated by spaces. The initial position is
+ * <pre>
+ * rbnkqnbr/pppppppp/8/8/8/8/PPPPPPPP/RBNKQNBR|8/8/8/8/8/8/8/8|8/8/8/8/8/8/8/8 w 0 1
+ * </pre>
+ * Corpora of positions are large, so the text is read from and written to char or byte
+ * arrays that the caller reuses, and neither reading nor writing allocates: a position
+ * is read into an existing Position, and malformed text is reported by the return value
+ * rather than by an exception. Bytes are ASCII.
+ * <p>
+ * Only positions that could arise in a game are read: each side must have one king and no
+ * more pieces of any type than it starts with, as pawns are never promoted, and the side
+ * not to move must not be in check. Other positions cannot be reached under the rules.
+ */
+public class PositionNotation {
+    // The longest text of a position: every cell, the separators, the side and two counters.
+    public static final int MAX_LENGTH = Position.CELLS + Position.LEVELS * Position.ROWS + 2 + 2 * 11;
+
+    // The letters of the piece types, indexed by type, in upper case.
+    private static final String LETTERS = ".PNBRQK";
+    // The piece code of each ASCII character, or -1 if it is not a piece letter.
+    private static final byte[] PIECES = new byte[128];
+
+    static {
+        Arrays.fill(PIECES, (byte) -1);
+        for (int type = Position.PAWN; type <= Position.KING; type++) {
+            char letter = LETTERS.charAt(type);
+            PIECES[letter] = Position.piece(type, Position.WHITE);
+            PIECES[Character.toLowerCase(letter)] = Position.piece(type, Position.BLACK);
+        }
+    }
+
+    private PositionNotation() {
+    }
+
+    /**
+     * Writes a position as text.
+     *
+     * @param position the position
+     * @return the text
+     */
+    public static String toText(Position position) {
+        char[] buffer = new char[MAX_LENGTH];
+        return new String(buffer, 0, write(position, buffer, null, 0));
+    }
+
+    /**
+     * Reads a position from text.
+     *
+     * @param text the text of a position, with nothing after it
+     * @return the position
+     * @throws IllegalArgumentException if the text is not a position
+     */
+    public static Position parse(String text) {
+        Position position = new Position();
+        char[] chars = text.toCharArray();
+        if (read(chars, null, 0, chars.length, position) != chars.length) {
+            throw new IllegalArgumentException("Not a position: " + text);
+        }
+        return position;
+    }
+
+    /**
+     * Writes a position as text into a char array.
+     *
+     * @param position the position
+     * @param buffer   the array, with room for MAX_LENGTH chars after the offset
+     * @param offset   the index to write the first char at
+     * @return the index after the last char written
+     */
+    public static int write(Position position, char[] buffer, int offset) {
+        return write(position, buffer, null, offset);
+    }
+
+    /**
+     * Writes a position as ASCII text into a byte array.
+     *
+     * @param position the position
+     * @param buffer   the array, with room for MAX_LENGTH bytes after the offset
+     * @param offset   the index to write the first byte at
+     * @return the index after the last byte written
+     */
+    public static int write(Position position, byte[] buffer, int offset) {
+        return write(position, null, buffer, offset);
+    }
+
+    /**
+     * Reads a position from text in a char array. The text ends at the end of the range
+     * or at the first line break.
+     *
+     * @param buffer   the array
+     * @param offset   the index of the first char of the text
+     * @param end      the end of the range the text is in, exclusive
+     * @param position the position to set, which is cleared first
+     * @return the index after the text, or -1 if the text is not a position
+     */
+    public static int read(char[] buffer, int offset, int end, Position position) {
+        return read(buffer, null, offset, end, position);
+    }
+
+    /**
+     * Reads a position from ASCII text in a byte array. The text ends at the end of the
+     * range or at the first line break.
+     *
+     * @param buffer   the array
+     * @param offset   the index of the first byte of the text
+     * @param end      the end of the range the text is in, exclusive
+     * @param position the position to set, which is cleared first
+     * @return the index after the text, or -1 if the text is not a position
+     */
+    public static int read(byte[] buffer, int offset, int end, Position position) {
+        return read(null, buffer, offset, end, position);
+    }
+
+    /**
+     * Writes a position into whichever of two arrays is given.
+     *
+     * @param position the position
+     * @param chars    the char array, or null to write bytes
+     * @param bytes    the byte array, or null to write chars
+     * @param offset   the index to write the first character at
+     * @return the index after the last character written
+     */
+    private static int write(Position position, char[] chars, byte[] bytes, int offset) {
+        int i = offset;
+        for (int level = 0; level < Position.LEVELS; level++) {
+            if (level > 0) {
+                i = put(chars, bytes, i, '|');
+            }
+            for (int row = 0; row < Position.ROWS; row++) {
+                if (row > 0) {
+                    i = put(chars, bytes, i, '/');
+                }
+                int empty = 0;
+                for (int col = 0; col < Position.COLS; col++) {
+                    int piece = position.get(Position.cell(level, row, col));
+                    if (piece == Position.EMPTY) {
+                        empty++;
+                        continue;
+                    }
+                    if (empty > 0) {
+                        i = put(chars, bytes, i, (char) ('0' + empty));
+                        empty = 0;
+                    }
+                    char letter = LETTERS.charAt(Position.typeOf(piece));
+                    i = put(chars, bytes, i, Position.colourOf(piece) == Position.WHITE
+                            ? letter : Character.toLowerCase(letter));
+                }
+                if (empty > 0) {
+                    i = put(chars, bytes, i, (char) ('0' + empty));
+                }
+            }
+        }
+        i = put(chars, bytes, i, ' ');
+        i = put(chars, bytes, i, position.getSideToMove() == Position.WHITE ? 'w' : 'b');
+        i = put(chars, bytes, i, ' ');
+        i = putNumber(chars, bytes, i, position.getHalfmoveClock());
+        i = put(chars, bytes, i, ' ');
+        return putNumber(chars, bytes, i, position.getFullmoveNumber());
+    }
+
+    /**
+     * Reads a position from whichever of two arrays is given.
+     *
+     * @param chars    the char array, or null to read bytes
+     * @param bytes    the byte array, or null to read chars
+     * @param offset   the index of the first character of the text
+     * @param end      the end of the range the text is in, exclusive
+     * @param position the position to set, which is cleared first
+     * @return the index after the text, or -1 if the text is not a position
+     */
+    private static int read(char[] chars, byte[] bytes, int offset, int end, Position position) {
+        position.clear();
+        int i = offset;
+        for (int level = 0; level < Position.LEVELS; level++) {
+            if (level > 0 && get(chars, bytes, i++, end) != '|') {
+                return -1;
+            }
+            for (int row = 0; row < Position.ROWS; row++) {
+                if (row > 0 && get(chars, bytes, i++, end) != '/') {
+                    return -1;
+                }
+                int col = 0;
+                while (col < Position.COLS) {
+                    char c = get(chars, bytes, i++, end);
+                    if (c >= '1' && c <= '8') {
+                        col += c - '0';
+                    } else if (c < PIECES.length && PIECES[c] >= 0) {
+                        position.set(Position.cell(level, row, col++), PIECES[c]);
+                    } else {
+                        return -1;
+                    }
+                }
+                if (col != Position.COLS) {
+                    return -1; // A run of empty cells went past the end of the rank
+                }
+            }
+        }
+
+        if (get(chars, bytes, i++, end) != ' ') {
+            return -1;
+        }
+        char side = get(chars, bytes, i++, end);
+        if (side != 'w' && side != 'b') {
+            return -1;
+        }
+        position.setSideToMove(side == 'w' ? Position.WHITE : Position.BLACK);
+        if (!isPossible(position)) {
+            return -1;
+        }
+
+        if (get(chars, bytes, i++, end) != ' ') {
+            return -1;
+        }
+        int halfmoveEnd = readNumber(chars, bytes, i, end);
+        if (halfmoveEnd < 0 || get(chars, bytes, halfmoveEnd, end) != ' ') {
+            return -1;
+        }
+        position.setHalfmoveClock(number(chars, bytes, i, halfmoveEnd));
+        i = halfmoveEnd + 1;
+        int fullmoveEnd = readNumber(chars, bytes, i, end);
+        if (fullmoveEnd < 0) {
+            return -1;
+        }
+        position.setFullmoveNumber(number(chars, bytes, i, fullmoveEnd));
+        char next = get(chars, bytes, fullmoveEnd, end);
+        return fullmoveEnd == end || next == '\n' || next == '\r' ? fullmoveEnd : -1;
+    }
+
+    /**
+     * Checks that a position could arise in a game: each side has exactly one king, no more
+     * pieces of any other type than it starts with, and the side not to move is not in check.
+     *
+     * @param position the position, with its pieces and side to move set
+     * @return true if the position is possible, false otherwise
+     */
+    private static boolean isPossible(Position position) {
+        for (int colour = Position.WHITE; colour <= Position.BLACK; colour++) {
+            int pawns = 0;
+            int knights = 0;
+            int bishops = 0;
+            int rooks = 0;
+            int queens = 0;
+            int kings = 0;
+            for (int cell = 0; cell < Position.CELLS; cell++) {
+                int piece = position.get(cell);
+                if (piece == Position.EMPTY || Position.colourOf(piece) != colour) {
+                    continue;
+                }
+                switch (Position.typeOf(piece)) {
+                    case Position.PAWN:
+                        pawns++;
+                        break;
+                    case Position.KNIGHT:
+                        knights++;
+                        break;
+                    case Position.BISHOP:
+                        bishops++;
+                        break;
+                    case Position.ROOK:
+                        rooks++;
+                        break;
+                    case Position.QUEEN:
+                        queens++;
+                        break;
+                    default:
+                        kings++;
+                        break;
+                }
+            }
+            if (kings != 1 || pawns > 8 || knights > 2 || bishops > 2 || rooks > 2 || queens > 1) {
+                return false;
+            }
+        }
+        int waiting = position.getSideToMove() ^ 1;
+        return !KingSafety.isAttacked(position, position.findKing(waiting), waiting ^ 1, -1);
+    }
+
+    /**
+     * Reads a character from whichever of two arrays is given.
+     *
+     * @param chars the char array, or null
+     * @param bytes the byte array, or null
+     * @param index the index of the character
+     * @param end   the end of the range being read, exclusive
+     * @return the character, or 0 past the end of the range
+     */
+    private static char get(char[] chars, byte[] bytes, int index, int end) {
+        if (index >= end) {
+            return 0;
+        }
+        return chars != null ? chars[index] : (char) (bytes[index] & 0xFF);
+    }
+
+    /**
+     * Finds the end of a number, of at most nine digits.
+     *
+     * @param chars the char array, or null
+     * @param bytes the byte array, or null
+     * @param start the index of the first digit
+     * @param end   the end of the range being read, exclusive
+     * @return the index after the last digit, or -1 if there are no digits or too many
+     */
+    private static int readNumber(char[] chars, byte[] bytes, int start, int end) {
+        int i = start;
+        char c;
+        while ((c = get(chars, bytes, i, end)) >= '0' && c <= '9') {
+            i++;
+        }
+        return i == start || i - start > 9 ? -1 : i;
+    }
+
+    /**
+     * Returns the value of a run of digits.
+     *
+     * @param chars the char array, or null
+     * @param bytes the byte array, or null
+     * @param start the index of the first digit
+     * @param end   the index after the last digit
+     * @return the value
+     */
+    private static int number(char[] chars, byte[] bytes, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + get(chars, bytes, i, end) - '0';
+        }
+        return value;
+    }
+
+    /**
+     * Writes a character into whichever of two arrays is given.
+     *
+     * @param chars the char array, or null
+     * @param bytes the byte array, or null
+     * @param index the index to write at
+     * @param c     the character, which is ASCII
+     * @return the index after the character
+     */
+    private static int put(char[] chars, byte[] bytes, int index, char c) {
+        if (chars != null) {
+            chars[index] = c;
+        } else {
+            bytes[index] = (byte) c;
+        }
+        return index + 1;
+    }
+
+    /**
+     * Writes a number in decimal into whichever of two arrays is given.
+     *
+     * @param chars the char array, or null
+     * @param bytes the byte array, or null
+     * @param index the index to write the first digit at
+     * @param value the number, not negative
+     * @return the index after the last digit
+     */
+    private static int putNumber(char[] chars, byte[] bytes, int index, int value) {
+        int digits = 1;
+        for (int rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = index + digits - 1, rest = value; i >= index; i--, rest /= 10) {
+            put(chars, bytes, i, (char) ('0' + rest % 10));
+        }
+        return index + digits;
+    }
+}
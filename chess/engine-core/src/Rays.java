@@ -0,0 +1,146 @@
+/**
+ * Precomputed rays for the sliding pieces on the 3 level board. A ray holds the
+ * cells reached by stepping repeatedly from an origin cell in one of the 26
+ * directions of 3D space, in order, up to the edge of the board.
+ * <p>
+ * The directions are ordered so that each sliding piece uses a contiguous range:
+ * the rook moves along the 6 straight lines, the queen along all 26 directions,
+ * and the bishop along the 4 diagonals of its level and the 8 diagonals that
+ * change row, column and level together.
+ */
+public class Rays {
+    // The directions as {level, row, col} steps.
+    private static final int[][] DIRECTIONS = {
+            // Straight lines across levels, rows and columns.
+            {1, 0, 0}, {-1, 0, 0}, {0, 1, 0}, {0, -1, 0}, {0, 0, 1}, {0, 0, -1},
+            // Diagonals that change level and either the row or the column.
+            {1, 1, 0}, {1, -1, 0}, {-1, 1, 0}, {-1, -1, 0},
+            {1, 0, 1}, {1, 0, -1}, {-1, 0, 1}, {-1, 0, -1},
+            // Diagonals within a level.
+            {0, 1, 1}, {0, 1, -1}, {0, -1, 1}, {0, -1, -1},
+            // Diagonals that change level, row and column together.
+            {1, 1, 1}, {1, 1, -1}, {1, -1, 1}, {1, -1, -1},
+            {-1, 1, 1}, {-1, 1, -1}, {-1, -1, 1}, {-1, -1, -1}
+    };
+
+    // The number of directions.
+    public static final int COUNT = DIRECTIONS.length;
+
+    // The ranges of directions used by each sliding piece, from first inclusive to last exclusive.
+    public static final int ROOK_FIRST = 0;
+    public static final int ROOK_LAST = 6;
+    public static final int BISHOP_FIRST = 14;
+    public static final int BISHOP_LAST = 26;
+    public static final int QUEEN_FIRST = 0;
+    public static final int QUEEN_LAST = 26;
+
+    // The longest possible ray.
+    private static final int MAX_LENGTH = 7;
+
+    // The cells of each ray, MAX_LENGTH slots per (cell, direction) pair.
+    private static final int[] CELLS = new int[Position.CELLS * COUNT * MAX_LENGTH];
+    // The number of cells in each ray, indexed by cell * COUNT + direction.
+    private static final int[] LENGTHS = new int[Position.CELLS * COUNT];
+    // The direction index of each unit step, indexed by (level + 1) * 9 + (row + 1) * 3 + (col + 1).
+    private static final int[] STEP_DIRECTIONS = new int[27];
+
+    static {
+        for (int direction = 0; direction < COUNT; direction++) {
+            int[] step = DIRECTIONS[direction];
+            STEP_DIRECTIONS[(step[0] + 1) * 9 + (step[1] + 1) * 3 + (step[2] + 1)] = direction;
+        }
+        STEP_DIRECTIONS[13] = -1;
+
+        for (int cell = 0; cell < Position.CELLS; cell++) {
+            for (int direction = 0; direction < COUNT; direction++) {
+                int[] step = DIRECTIONS[direction];
+                int level = Position.levelOf(cell) + step[0];
+                int row = Position.rowOf(cell) + step[1];
+                int col = Position.colOf(cell) + step[2];
+                int ray = cell * COUNT + direction;
+                while (Position.onBoard(level, row, col)) {
+                    CELLS[ray * MAX_LENGTH + LENGTHS[ray]++] = Position.cell(level, row, col);
+                    level += step[0];
+                    row += step[1];
+                    col += step[2];
+                }
+            }
+        }
+    }
+
+    private Rays() {
+    }
+
+    /**
+     * Returns the number of cells on a ray.
+     *
+     * @param cell      the origin cell
+     * @param direction the direction index
+     * @return the number of cells between the origin and the edge of the board
+     */
+    public static int length(int cell, int direction) {
+        return LENGTHS[cell * COUNT + direction];
+    }
+
+    /**
+     * Returns a cell on a ray.
+     *
+     * @param cell      the origin cell
+     * @param direction the direction index
+     * @param index     the position on the ray, where 0 is the cell next to the origin
+     * @return the cell index
+     */
+    public static int target(int cell, int direction, int index) {
+        return CELLS[(cell * COUNT + direction) * MAX_LENGTH + index];
+    }
+
+    /**
+     * Finds the direction of the ray leading from one cell to another.
+     *
+     * @param from the origin cell
+     * @param to   the target cell
+     * @return the direction index, or -1 if the target does not lie on any ray of the origin
+     */
+    public static int direction(int from, int to) {
+        int levelDiff = Position.levelOf(to) - Position.levelOf(from);
+        int rowDiff = Position.rowOf(to) - Position.rowOf(from);
+        int colDiff = Position.colOf(to) - Position.colOf(from);
+        int distance = Math.max(Math.abs(levelDiff), Math.max(Math.abs(rowDiff), Math.abs(colDiff)));
+
+        // Every non-zero difference must equal the distance for the cells to be aligned.
+        if (distance == 0 || !isStep(levelDiff, distance) || !isStep(rowDiff, distance) || !isStep(colDiff, distance)) {
+            return -1;
+        }
+        return STEP_DIRECTIONS[(levelDiff / distance + 1) * 9 + (rowDiff / distance + 1) * 3 + (colDiff / distance + 1)];
+    }
+
+    /**
+     * Checks if a coordinate difference is a whole number of unit steps over a distance.
+     *
+     * @param diff     the difference along one axis
+     * @param distance the largest difference along any axis
+     * @return true if the difference is zero or equal in size to the distance
+     */
+    private static boolean isStep(int diff, int distance) {
+        return diff == 0 || Math.abs(diff) == distance;
+    }
+
+    /**
+     * Checks if the cells between two cells on a ray are empty.
+     *
+     * @param position  the position to check
+     * @param from      the origin cell
+     * @param to        the target cell, which must lie on the ray
+     * @param direction the direction of the ray
+     * @return true if no piece stands between the two cells, false otherwise
+     */
+    public static boolean isPathClear(Position position, int from, int to, int direction) {
+        int base = (from * COUNT + direction) * MAX_LENGTH;
+        for (int index = 0; CELLS[base + index] != to; index++) {
+            if (!position.isEmpty(CELLS[base + index])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
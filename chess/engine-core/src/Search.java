@@ -0,0 +1,547 @@
+/**
+ * Searches a headless Position for the best move using principal variation alpha-beta
+ * search with iterative deepening. Each iteration searches one ply deeper than the
+ * last and starts from the best move found so far, which the transposition table
+ * provides. Moves are tried in the order of MovePicker, helped by the killer moves and
+ * history scores the search records. All buffers are allocated once per Search, so a
+ * search does not allocate.
+ * <p>
+ * At the leaves a quiescence search plays out the captures, so that a position is never
+ * scored in the middle of an exchange. The side to move may "stand pat" on the static
+ * score instead of capturing, and captures that cannot raise the score to alpha even
+ * if they win the captured piece outright are skipped (delta pruning).
+ * <p>
+ * Only legal moves are searched. A side with no legal move is checkmated if its king is
+ * attacked and stalemated otherwise.
+ * <p>
+ * With tablebases (see Tablebase), a position found in them below the root is scored
+ * from its exact result and distance to checkmate, without searching it.
+ * <p>
+ * A search ends at the limits it is given (see SearchLimits): a depth, a node budget or
+ * a time, or when it is stopped from another thread with stop(). Stopping is cooperative:
+ * the search checks a volatile flag and the clock every few nodes, then abandons the
+ * iteration in progress and returns the best move of the last completed one. The node
+ * and time limits never cut short the first iteration of the main search, so a search
+ * always returns a move if there is one. stop() ends even that iteration; the search then
+ * returns the best root move searched so far, or the first legal move.
+ */
+public class Search {
+    /**
+     * Receives the result of each completed iteration, for reporting progress.
+     */
+    public interface IterationListener {
+        /**
+         * Called on the search thread after each completed iteration.
+         *
+         * @param depth    the depth of the iteration
+         * @param score    the score of the best move for the side to move
+         * @param bestMove the best move found by the iteration
+         * @param nodes    the number of positions visited so far
+         */
+        void iterationCompleted(int depth, int score, int bestMove, long nodes);
+    }
+
+    // Scores beyond any evaluation.
+    public static final int INFINITY = 32000;
+    // The score of checkmate at the root, reduced by one for each ply before the mate.
+    public static final int MATE = 31000;
+    // The deepest ply the search reaches, including extensions.
+    public static final int MAX_PLY = 64;
+    // The score of a tablebase win at the root, below every mate score and reduced by one for
+    // each ply before the mate; the lowest such score is TABLEBASE_WIN_MIN.
+    public static final int TABLEBASE_WIN = MATE - MAX_PLY - 1;
+    public static final int TABLEBASE_WIN_MIN = TABLEBASE_WIN - MAX_PLY - Tablebase.MAX_DISTANCE;
+
+    // How often, in nodes, the search checks whether it has been stopped or is out of time. Must be a power of two.
+    private static final int STOP_CHECK_INTERVAL = 1024;
+    // The margin added to the value of a captured piece before delta pruning, for positional gains.
+    private static final int DELTA_MARGIN = 200;
+    // The history score at which every history score is halved.
+    private static final int HISTORY_LIMIT = 1 << 20;
+
+    // The transposition table, which may be shared with other searches.
+    private final TranspositionTable table;
+    // The index of this search among the threads of a parallel search, 0 for the main thread.
+    private final int helperIndex;
+    // Set from another thread to stop the search.
+    private volatile boolean stopRequested;
+    // Whether the current iteration was abandoned because the search was stopped.
+    private boolean aborted;
+    // The node budget of the current search, or Long.MAX_VALUE for none.
+    private long nodeLimit;
+    // The System.nanoTime after which the current search must stop, or Long.MAX_VALUE for none.
+    private long hardDeadline;
+    // The history scores of quiet moves, indexed by from * CELLS + to: how often and how deep
+    // each move has caused a cutoff.
+    private final int[] history = new int[Position.CELLS * Position.CELLS];
+    // The two most recent quiet moves that caused a cutoff at each ply, newest first.
+    private final int[][] killers = new int[MAX_PLY][2];
+    // A move picker for each ply.
+    private final MovePicker[] pickers = new MovePicker[MAX_PLY];
+    // Told about each completed iteration, or null.
+    private IterationListener listener;
+    // The endgame tablebases, or null.
+    private Tablebase tablebase;
+    // The position being searched.
+    private Position position;
+    // The number of positions visited in the current search.
+    private long nodes;
+    // The best move at the root found by the current iteration.
+    private int rootBestMove;
+    // The best move and score of the last completed iteration.
+    private int bestMove;
+    private int bestScore;
+    // The depth of the last completed iteration.
+    private int completedDepth;
+
+    /**
+     * Constructs a search using a transposition table.
+     *
+     * @param table the transposition table to read and store results in
+     */
+    public Search(TranspositionTable table) {
+        this(table, 0);
+    }
+
+    /**
+     * Constructs one of the searches of a parallel search. Helper searches, with an index
+     * above 0, start at a different depth and try quiet moves in a different order, so
+     * that the threads spread out over the tree and fill the shared table with different results.
+     *
+     * @param table       the transposition table shared by the threads
+     * @param helperIndex the index of the thread, 0 for the main thread
+     */
+    public Search(TranspositionTable table, int helperIndex) {
+        this.table = table;
+        this.helperIndex = helperIndex;
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            pickers[ply] = new MovePicker(history);
+        }
+    }
+
+    /**
+     * Sets the listener told about each completed iteration.
+     *
+     * @param listener the listener, or null for none
+     */
+    public void setListener(IterationListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Sets the endgame tablebases probed during the search.
+     *
+     * @param tablebase the tablebases, or null for none
+     */
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Asks the search to stop as soon as possible. May be called from any thread.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Clears a stop request, so that the next search runs, and the node count, so that
+     * progress reports read from other threads do not include the last search. Call before
+     * starting a search that may be stopped, rather than from the search itself, so that a
+     * stop requested before the search thread starts is not lost.
+     */
+    public void clearStop() {
+        stopRequested = false;
+        nodes = 0;
+    }
+
+    /**
+     * Searches a position to a fixed depth using iterative deepening.
+     * The position is changed during the search but restored before returning.
+     *
+     * @param position the position to search
+     * @param maxDepth the depth of the last iteration
+     * @return the best move, or Move.NONE if the side to move has no legal moves
+     */
+    public int search(Position position, int maxDepth) {
+        return search(position, SearchLimits.depth(maxDepth));
+    }
+
+    /**
+     * Searches a position using iterative deepening until one of the limits is reached.
+     * The position is changed during the search but restored before returning.
+     *
+     * @param position the position to search
+     * @param limits   the limits of the search
+     * @return the best move of the last completed iteration, or Move.NONE if the side to
+     *         move has no legal moves
+     */
+    public int search(Position position, SearchLimits limits) {
+        long start = System.nanoTime();
+        int side = position.getSideToMove();
+        long softMillis = limits.getSoftMillis(side);
+        long hardMillis = limits.getHardMillis(side);
+        long softDeadline = softMillis > 0 ? start + softMillis * 1_000_000L : Long.MAX_VALUE;
+        hardDeadline = hardMillis > 0 ? start + hardMillis * 1_000_000L : Long.MAX_VALUE;
+        nodeLimit = limits.getNodes() > 0 ? limits.getNodes() : Long.MAX_VALUE;
+
+        this.position = position;
+        nodes = 0;
+        bestMove = Move.NONE;
+        bestScore = 0;
+        completedDepth = 0;
+        aborted = false;
+        // Keep what the history learnt in earlier searches, but let the new position outweigh it.
+        for (int i = 0; i < history.length; i++) {
+            history[i] >>= 1;
+        }
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = Move.NONE;
+            plyKillers[1] = Move.NONE;
+        }
+
+        // Odd helpers start one ply deeper than the others.
+        for (int depth = 1 + (helperIndex & 1); depth <= limits.getDepth(); depth++) {
+            rootBestMove = Move.NONE;
+            int score = pvs(depth, -INFINITY, INFINITY, 0);
+            if (aborted) {
+                break; // Keep the result of the last completed iteration
+            }
+            if (rootBestMove == Move.NONE) {
+                break; // No moves at the root
+            }
+            bestMove = rootBestMove;
+            bestScore = score;
+            completedDepth = depth;
+            if (listener != null) {
+                listener.iterationCompleted(depth, score, bestMove, nodes);
+            }
+            if (Math.abs(score) >= MATE - MAX_PLY) {
+                break; // A checkmate was found, searching deeper cannot change it
+            }
+            if (System.nanoTime() >= softDeadline) {
+                break; // Too little time is left to finish another iteration
+            }
+        }
+        if (bestMove == Move.NONE && aborted && helperIndex == 0) {
+            bestMove = firstIterationMove();
+        }
+        return bestMove;
+    }
+
+    /**
+     * Chooses a move when the main search was stopped before finishing its first
+     * iteration: the best root move searched so far, or else the first legal move.
+     *
+     * @return the move to play, or Move.NONE if the side to move has no legal moves
+     */
+    private int firstIterationMove() {
+        if (rootBestMove != Move.NONE) {
+            return rootBestMove;
+        }
+        MovePicker picker = pickers[0];
+        picker.init(position, Move.NONE, Move.NONE, Move.NONE, 0);
+        return picker.next();
+    }
+
+    /**
+     * Abandons the iteration in progress if the search has been stopped or has reached its
+     * node or time limit. The clock and the stop flag are only read every few nodes, as
+     * reading them on every node would cost more than the search itself. The node and time
+     * limits do not stop the first iteration of the main search, but stop() does.
+     */
+    private void checkLimits() {
+        boolean checkNow = (nodes & (STOP_CHECK_INTERVAL - 1)) == 0;
+        if (checkNow && stopRequested) {
+            aborted = true;
+            return;
+        }
+        if (helperIndex == 0 && completedDepth == 0) {
+            return;
+        }
+        if (nodes >= nodeLimit || (checkNow && System.nanoTime() >= hardDeadline)) {
+            aborted = true;
+        }
+    }
+
+    /**
+     * Searches a position with principal variation alpha-beta. The first move is searched
+     * with the full window; the rest with a null window around alpha, and are re-searched
+     * with the full window only if they turn out to be better.
+     *
+     * @param depth the remaining depth
+     * @param alpha the lower bound of the window
+     * @param beta  the upper bound of the window
+     * @param ply   the distance from the root
+     * @return the score for the side to move
+     */
+    private int pvs(int depth, int alpha, int beta, int ply) {
+        int side = position.getSideToMove();
+        if (!position.hasKing(side)) {
+            return -MATE + ply; // Only reachable from a set up position
+        }
+        if (ply > 0 && (position.isRepetition() || position.getHalfmoveClock() >= 100)) {
+            return 0;
+        }
+        nodes++;
+        checkLimits();
+        if (aborted) {
+            return 0;
+        }
+        if (tablebase != null && ply > 0) {
+            int entry = tablebase.probe(position);
+            if (entry != Tablebase.NOT_FOUND) {
+                return scoreFromTablebase(entry, ply);
+            }
+        }
+        if (ply >= MAX_PLY - 1) {
+            return Evaluator.evaluate(position);
+        }
+        if (depth <= 0) {
+            return quiescence(alpha, beta, ply);
+        }
+
+        long hash = position.getHash();
+        int hashMove = Move.NONE;
+        long entry = table.probe(hash);
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = scoreFromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && score >= beta)
+                        || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        // Helper searches rotate the quiet moves by an amount depending on the helper and the ply.
+        MovePicker picker = pickers[ply];
+        picker.init(position, hashMove, killers[ply][0], killers[ply][1], helperIndex > 0 ? helperIndex * 7 + ply : 0);
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMoveHere = Move.NONE;
+        int searched = 0;
+        int move;
+        while ((move = picker.next()) != Move.NONE) {
+            position.makeMove(move);
+            int score;
+            if (searched++ == 0) {
+                score = -pvs(depth - 1, -beta, -alpha, ply + 1);
+            } else {
+                score = -pvs(depth - 1, -alpha - 1, -alpha, ply + 1);
+                if (score > alpha && score < beta) {
+                    score = -pvs(depth - 1, -beta, -alpha, ply + 1);
+                }
+            }
+            position.unmakeMove();
+            if (aborted) {
+                return 0;
+            }
+
+            if (score > best) {
+                best = score;
+                bestMoveHere = move;
+                if (ply == 0) {
+                    rootBestMove = move;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        if (!Move.isCapture(move)) {
+                            recordCutoff(move, depth, ply);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (searched == 0) {
+            return picker.isInCheck() ? -MATE + ply : 0;
+        }
+
+        int bound = best <= originalAlpha ? TranspositionTable.UPPER
+                : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        table.store(hash, bestMoveHere, scoreToTable(best, ply), depth, bound);
+        return best;
+    }
+
+    /**
+     * Searches the captures of a position until it is quiet. The side to move may stand pat
+     * on the static score, unless it is in check, when every move is searched instead.
+     *
+     * @param alpha the lower bound of the window
+     * @param beta  the upper bound of the window
+     * @param ply   the distance from the root
+     * @return the score for the side to move
+     */
+    private int quiescence(int alpha, int beta, int ply) {
+        nodes++;
+        checkLimits();
+        if (aborted) {
+            return 0;
+        }
+        int standPat = Evaluator.evaluate(position);
+        if (ply >= MAX_PLY - 1) {
+            return standPat;
+        }
+
+        MovePicker picker = pickers[ply];
+        picker.initCaptures(position);
+        boolean inCheck = picker.isInCheck();
+        int best = -INFINITY;
+        if (!inCheck) {
+            if (standPat >= beta) {
+                return standPat;
+            }
+            alpha = Math.max(alpha, standPat);
+            best = standPat;
+        }
+
+        int searched = 0;
+        int move;
+        while ((move = picker.next()) != Move.NONE) {
+            searched++;
+            if (!inCheck && standPat + Evaluator.value(Position.typeOf(Move.captured(move))) + DELTA_MARGIN <= alpha) {
+                continue; // Even winning the piece for nothing cannot reach alpha
+            }
+            position.makeMove(move);
+            int score = -quiescence(-beta, -alpha, ply + 1);
+            position.unmakeMove();
+            if (aborted) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (inCheck && searched == 0) {
+            return -MATE + ply;
+        }
+        return best;
+    }
+
+    /**
+     * Records a quiet move that caused a cutoff, as a killer move of its ply and in the
+     * history table. Deeper cutoffs count for more, as they save more work.
+     *
+     * @param move  the packed move
+     * @param depth the remaining depth of the node
+     * @param ply   the distance from the root
+     */
+    private void recordCutoff(int move, int depth, int ply) {
+        int[] plyKillers = killers[ply];
+        if (plyKillers[0] != move) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+        int index = Move.from(move) * Position.CELLS + Move.to(move);
+        history[index] += depth * depth;
+        if (history[index] > HISTORY_LIMIT) {
+            // Halve every score, keeping their order, so that they never overflow.
+            for (int i = 0; i < history.length; i++) {
+                history[i] >>= 1;
+            }
+        }
+    }
+
+    /**
+     * Converts a tablebase entry to a score. A win or loss is scored from TABLEBASE_WIN,
+     * less the plies to the checkmate it leads to, so that it stays apart from the mate
+     * scores the search proves and from every evaluation.
+     *
+     * @param entry the entry of the position, other than NOT_FOUND
+     * @param ply   the distance from the root
+     * @return the score for the side to move
+     */
+    private static int scoreFromTablebase(int entry, int ply) {
+        if (entry == Tablebase.DRAW) {
+            return 0;
+        }
+        int mateAt = ply + Tablebase.distance(entry);
+        return Tablebase.isWin(entry) ? TABLEBASE_WIN - mateAt : -TABLEBASE_WIN + mateAt;
+    }
+
+    /**
+     * Converts a score to the form stored in the transposition table. Mate and tablebase
+     * scores are stored relative to the position rather than the root, so they stay
+     * correct when the position is reached at a different ply.
+     *
+     * @param score the score relative to the root
+     * @param ply   the distance from the root
+     * @return the score to store
+     */
+    private static int scoreToTable(int score, int ply) {
+        if (score >= TABLEBASE_WIN_MIN) {
+            return score + ply;
+        }
+        if (score <= -TABLEBASE_WIN_MIN) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    /**
+     * Converts a score read from the transposition table back to a score relative to the root.
+     *
+     * @param score the stored score
+     * @param ply   the distance from the root
+     * @return the score relative to the root
+     */
+    private static int scoreFromTable(int score, int ply) {
+        if (score >= TABLEBASE_WIN_MIN) {
+            return score - ply;
+        }
+        if (score <= -TABLEBASE_WIN_MIN) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * Returns the best move of the last completed iteration.
+     *
+     * @return the packed move, or Move.NONE
+     */
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * Returns the score of the last completed iteration.
+     *
+     * @return the score in centipawns for the side to move at the root
+     */
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    /**
+     * Returns the depth of the last completed iteration.
+     *
+     * @return the completed depth
+     */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * Returns the number of positions visited by the current or last search.
+     *
+     * @return the node count
+     */
+    public long getNodes() {
+        return nodes;
+    }
+}
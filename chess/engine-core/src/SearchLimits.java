@@ -0,0 +1,193 @@
+/**
+ * The limits of one search: a maximum depth, a node budget, a fixed time per move, a game
+ * clock to take the time from, or none at all, in which case the search runs until it is
+ * stopped. Limits can be combined, and the search ends at whichever comes first.
+ * <p>
+ * With a game clock, the time for a move is the remaining time shared over the moves still
+ * to play, plus most of the increment. The search does not start a new iteration once this
+ * soft limit has passed, as it would rarely finish it, and abandons the iteration in progress
+ * at a hard limit a few times longer, so a hard position can take extra time without ever
+ * risking the clock.
+ */
+public class SearchLimits {
+    // The number of moves the remaining time is shared over when the clock does not say.
+    private static final int DEFAULT_MOVES_TO_GO = 30;
+    // The time kept back on every move for communication and scheduling delays, in milliseconds.
+    private static final long MOVE_OVERHEAD_MILLIS = 50;
+    // How many times the soft limit the hard limit may be.
+    private static final int HARD_LIMIT_FACTOR = 3;
+
+    // The depth of the last iteration.
+    private int depth = Search.MAX_PLY - 1;
+    // The number of positions after which the search stops, or 0 for no budget.
+    private long nodes;
+    // The fixed time for the move in milliseconds, or 0 if none.
+    private long moveTimeMillis;
+    // The time left on each side's clock and each side's increment per move, in milliseconds, indexed by colour.
+    private final long[] clockMillis = new long[2];
+    private final long[] incrementMillis = new long[2];
+    // The number of moves until the next time control, or 0 if the clock covers the rest of the game.
+    private int movesToGo;
+
+    /**
+     * Constructs limits that let the search run until it is stopped.
+     */
+    public SearchLimits() {
+    }
+
+    /**
+     * Creates limits that stop the search after an iteration of a given depth.
+     *
+     * @param depth the depth of the last iteration
+     * @return the limits
+     */
+    public static SearchLimits depth(int depth) {
+        SearchLimits limits = new SearchLimits();
+        limits.setDepth(depth);
+        return limits;
+    }
+
+    /**
+     * Creates limits that stop the search after a fixed time.
+     *
+     * @param millis the time for the move in milliseconds
+     * @return the limits
+     */
+    public static SearchLimits moveTime(long millis) {
+        SearchLimits limits = new SearchLimits();
+        limits.setMoveTime(millis);
+        return limits;
+    }
+
+    /**
+     * Creates limits that take the time for the move from a game clock.
+     *
+     * @param whiteMillis          the time left on white's clock in milliseconds
+     * @param blackMillis          the time left on black's clock in milliseconds
+     * @param whiteIncrementMillis white's increment per move in milliseconds
+     * @param blackIncrementMillis black's increment per move in milliseconds
+     * @param movesToGo            the number of moves until the next time control, or 0 for the rest of the game
+     * @return the limits
+     */
+    public static SearchLimits clock(long whiteMillis, long blackMillis, long whiteIncrementMillis,
+                                     long blackIncrementMillis, int movesToGo) {
+        SearchLimits limits = new SearchLimits();
+        limits.setClock(Position.WHITE, whiteMillis, whiteIncrementMillis);
+        limits.setClock(Position.BLACK, blackMillis, blackIncrementMillis);
+        limits.setMovesToGo(movesToGo);
+        return limits;
+    }
+
+    /**
+     * Sets the depth of the last iteration.
+     *
+     * @param depth the depth, from 1 to Search.MAX_PLY - 1
+     */
+    public void setDepth(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("The depth must be at least 1, got " + depth);
+        }
+        this.depth = Math.min(depth, Search.MAX_PLY - 1);
+    }
+
+    /**
+     * Sets the number of positions after which the search stops.
+     *
+     * @param nodes the node budget, or 0 for none
+     */
+    public void setNodes(long nodes) {
+        this.nodes = nodes;
+    }
+
+    /**
+     * Sets a fixed time for the move, which overrides the game clock.
+     *
+     * @param millis the time in milliseconds, or 0 for none
+     */
+    public void setMoveTime(long millis) {
+        this.moveTimeMillis = millis;
+    }
+
+    /**
+     * Sets the clock of one side.
+     *
+     * @param colour          WHITE or BLACK
+     * @param millis          the time left in milliseconds, or 0 if the side plays without a clock
+     * @param incrementMillis the increment per move in milliseconds
+     */
+    public void setClock(int colour, long millis, long incrementMillis) {
+        clockMillis[colour] = millis;
+        this.incrementMillis[colour] = incrementMillis;
+    }
+
+    /**
+     * Sets the number of moves until the next time control.
+     *
+     * @param movesToGo the number of moves, or 0 if the clock covers the rest of the game
+     */
+    public void setMovesToGo(int movesToGo) {
+        this.movesToGo = movesToGo;
+    }
+
+    /**
+     * Returns the depth of the last iteration.
+     *
+     * @return the maximum depth
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns the number of positions after which the search stops.
+     *
+     * @return the node budget, or 0 for none
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the time after which the search should not start another iteration.
+     *
+     * @param colour the side to move, WHITE or BLACK
+     * @return the soft time limit in milliseconds, or 0 for none
+     */
+    public long getSoftMillis(int colour) {
+        if (moveTimeMillis > 0) {
+            return moveTimeMillis;
+        }
+        if (clockMillis[colour] <= 0) {
+            return 0;
+        }
+        long available = availableMillis(colour);
+        int moves = movesToGo > 0 ? movesToGo : DEFAULT_MOVES_TO_GO;
+        return Math.min(available, available / moves + incrementMillis[colour] * 3 / 4);
+    }
+
+    /**
+     * Returns the time after which the search must stop, abandoning the iteration in progress.
+     *
+     * @param colour the side to move, WHITE or BLACK
+     * @return the hard time limit in milliseconds, or 0 for none
+     */
+    public long getHardMillis(int colour) {
+        if (moveTimeMillis > 0) {
+            return moveTimeMillis;
+        }
+        if (clockMillis[colour] <= 0) {
+            return 0;
+        }
+        return Math.min(availableMillis(colour), getSoftMillis(colour) * HARD_LIMIT_FACTOR);
+    }
+
+    /**
+     * Returns the time a side can use, keeping back the move overhead.
+     *
+     * @param colour WHITE or BLACK
+     * @return the usable time in milliseconds, at least 1
+     */
+    private long availableMillis(int colour) {
+        return Math.max(1, clockMillis[colour] - MOVE_OVERHEAD_MILLIS);
+    }
+}
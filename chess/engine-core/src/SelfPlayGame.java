@@ -0,0 +1,191 @@
+import java.util.Random;
+
+/**
+ * One headless game between the two engines of a Tournament, played a move at a time.
+ * The game holds no thread and no search of its own: whoever plays its next move lends it
+ * a Search, so a tournament can keep thousands of games open with only a few threads.
+ * Only one move of a game may be played at a time.
+ * <p>
+ * A game starts with a few random moves, so that games between deterministic engines
+ * differ, and ends by the rules of GameState or, as a draw, at a move limit.
+ */
+public class SelfPlayGame {
+    // The points an engine scores for a win and for a draw; a loss scores none.
+    public static final int WIN_POINTS = 2;
+    public static final int DRAW_POINTS = 1;
+
+    // The number of plies after which an unfinished game is adjudicated a draw.
+    private static final int MAX_PLIES = 400;
+
+    // The number of the game in its tournament.
+    private final int number;
+    // The engine playing white, 0 or 1; the other plays black.
+    private final int whiteEngine;
+    // The current position, with every move of the game on its undo stack.
+    private final Position position = Position.initial();
+    // The number of random moves the game started with.
+    private final int openingPlies;
+    // The System.nanoTime the game started at.
+    private final long startNanos = System.nanoTime();
+    // The state of the game, one of the GameState constants.
+    private int state;
+    // Whether the game was ended by the move limit.
+    private boolean moveLimitReached;
+
+    /**
+     * Creates a game and plays its opening moves.
+     *
+     * @param number       the number of the game in its tournament
+     * @param whiteEngine  the engine playing white, 0 or 1
+     * @param random       the source of the opening moves
+     * @param openingPlies the number of random moves to start with
+     */
+    public SelfPlayGame(int number, int whiteEngine, Random random, int openingPlies) {
+        this.number = number;
+        this.whiteEngine = whiteEngine;
+        KingSafety safety = new KingSafety();
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int played = 0;
+        while (played < openingPlies) {
+            int count = MoveGenerator.generateLegalMoves(position, safety, moves, 0);
+            if (count == 0) {
+                break;
+            }
+            position.makeMove(moves[random.nextInt(count)]);
+            played++;
+        }
+        this.openingPlies = played;
+        updateState();
+    }
+
+    /**
+     * Searches the position for the side to move and plays the move found.
+     *
+     * @param search the search of the engine to move, used by no other thread meanwhile
+     * @param limits the limits of the engine to move
+     * @return true if the move ended the game, false otherwise
+     */
+    public boolean playMove(Search search, SearchLimits limits) {
+        if (isOver()) {
+            throw new IllegalStateException("Game " + number + " is already over");
+        }
+        search.clearStop();
+        int move = search.search(position, limits);
+        position.makeMove(move);
+        updateState();
+        return isOver();
+    }
+
+    /**
+     * Finds the state of the game after a move, and applies the move limit.
+     */
+    private void updateState() {
+        state = GameState.of(position);
+        moveLimitReached = !GameState.isOver(state) && position.getMoveCount() >= MAX_PLIES;
+    }
+
+    /**
+     * Checks if the game has ended.
+     *
+     * @return true if the game is over, false otherwise
+     */
+    public boolean isOver() {
+        return GameState.isOver(state) || moveLimitReached;
+    }
+
+    /**
+     * Returns the engine to move.
+     *
+     * @return 0 or 1
+     */
+    public int getEngineToMove() {
+        return position.getSideToMove() == Position.WHITE ? whiteEngine : 1 - whiteEngine;
+    }
+
+    /**
+     * Returns the result of a finished game.
+     *
+     * @return GameState.WHITE_WINS, DRAW or BLACK_WINS
+     */
+    public int getResult() {
+        return moveLimitReached ? GameState.DRAW : GameState.resultOf(position, state);
+    }
+
+    /**
+     * Returns the points an engine scored in a finished game.
+     *
+     * @param engine 0 or 1
+     * @return WIN_POINTS for a win, DRAW_POINTS for a draw and 0 for a loss
+     */
+    public int getPoints(int engine) {
+        int result = getResult();
+        if (result == GameState.DRAW) {
+            return DRAW_POINTS;
+        }
+        boolean whiteWon = result == GameState.WHITE_WINS;
+        return whiteWon == (engine == whiteEngine) ? WIN_POINTS : 0;
+    }
+
+    /**
+     * Returns the state of the game.
+     *
+     * @return one of the GameState constants, ONGOING if the game was ended by the move limit
+     */
+    public int getState() {
+        return state;
+    }
+
+    /**
+     * Returns how a finished game ended, for display.
+     *
+     * @return the description
+     */
+    public String describeEnding() {
+        return moveLimitReached ? "Draw by the move limit" : GameState.describe(state);
+    }
+
+    /**
+     * Returns the number of the game in its tournament.
+     *
+     * @return the game number
+     */
+    public int getNumber() {
+        return number;
+    }
+
+    /**
+     * Returns the engine playing white.
+     *
+     * @return 0 or 1
+     */
+    public int getWhiteEngine() {
+        return whiteEngine;
+    }
+
+    /**
+     * Returns the position of the game.
+     *
+     * @return the current position, which must not be changed
+     */
+    public Position getPosition() {
+        return position;
+    }
+
+    /**
+     * Returns the number of random moves the game started with.
+     *
+     * @return the number of opening plies
+     */
+    public int getOpeningPlies() {
+        return openingPlies;
+    }
+
+    /**
+     * Returns the time since the game started.
+     *
+     * @return the elapsed time in milliseconds
+     */
+    public long getElapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,366 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Endgame tablebases: the exact result of every position with a king and one other piece
+ * against a lone king, and the number of plies to checkmate, read through memory mapping.
+ * A directory holds one file for each piece, named after the material, such as KQK.tb
+ * for a king and queen against a king, built by TablebaseGenerator. A lookup allocates
+ * nothing, so the search can probe at every node, and lookups can be made from several
+ * threads at once.
+ * <p>
+ * The pieces move alike for both colours and in every direction, so a table does not
+ * depend on which colour is stronger, and each of the 16 ways of mirroring the board
+ * (through the middle level, rank or file, or across the diagonal of the levels) turns a
+ * position into one with the same result. A table only holds the positions with the
+ * stronger king in one of 20 cells, and every other position is mirrored into them:
+ * <pre>
+ * index = ((side to move * 20 + king slot) * 192 + piece cell) * 192 + weak king cell
+ * </pre>
+ * where the side to move is STRONG_TO_MOVE or WEAK_TO_MOVE. Each entry is a byte: DRAW,
+ * or the number of plies to checkmate plus 1. The side to move wins if that number is
+ * odd and is checkmated if it is even. Entries ignore the fifty move rule.
+ * <p>
+ * The file starts with a 16 byte header: the magic number, the format version, the type
+ * of the piece and the number of blocks, as ints. The entries are compressed in blocks
+ * of the 192 weak king cells of one side to move, king slot and piece cell. The offset
+ * of each block from the start of the file follows the header, with one more offset for
+ * the end of the last block, as ints, and then the blocks. A block holds only a handful
+ * of different entries, so it starts with their number, as a byte, and the entries, a
+ * byte each, and then gives each position the index of its entry among them, in as few
+ * bits as the largest index needs, first position first and high bits first. An entry
+ * is read without decoding anything else. Positions that cannot occur, such as the side
+ * not to move being in check, take the first entry. All numbers are big-endian.
+ */
+public class Tablebase implements Closeable {
+    // The first int of every table, "3DTB" in ASCII.
+    public static final int MAGIC = 0x33445442;
+    // The version of the format.
+    public static final int VERSION = 1;
+    // The size of the header in bytes.
+    public static final int HEADER_BYTES = 16;
+
+    // The sides to move, as the first part of an index.
+    public static final int STRONG_TO_MOVE = 0;
+    public static final int WEAK_TO_MOVE = 1;
+    // The number of cells the stronger king is mirrored into.
+    public static final int KING_SLOTS = 20;
+    // The number of entries in each block, and the number of blocks and entries in each table.
+    public static final int BLOCK_ENTRIES = Position.CELLS;
+    public static final int BLOCKS = 2 * KING_SLOTS * Position.CELLS;
+    public static final int ENTRIES = BLOCKS * BLOCK_ENTRIES;
+
+    // The entry of a drawn position.
+    public static final int DRAW = 0;
+    // The longest distance to checkmate an entry can hold, in plies.
+    public static final int MAX_DISTANCE = 254;
+    // Returned by probe for a position that is not in any table.
+    public static final int NOT_FOUND = -1;
+
+    // The number of ways of mirroring the board, including leaving it as it is.
+    public static final int SYMMETRIES = 16;
+
+    // The letters of the piece types in file names, indexed by type.
+    private static final String LETTERS = ".PNBRQK";
+    // Each cell mirrored in each way, indexed by symmetry * CELLS + cell.
+    private static final int[] MIRRORED = new int[SYMMETRIES * Position.CELLS];
+    // The way of mirroring that moves a stronger king on each cell into a king slot.
+    private static final int[] SYMMETRY_OF_KING = new int[Position.CELLS];
+    // The king slot of each cell, or -1 if the cell is not a slot.
+    private static final int[] KING_SLOT = new int[Position.CELLS];
+    // The cell of each king slot.
+    private static final int[] KING_CELLS = new int[KING_SLOTS];
+
+    static {
+        for (int symmetry = 0; symmetry < SYMMETRIES; symmetry++) {
+            for (int cell = 0; cell < Position.CELLS; cell++) {
+                int level = Position.levelOf(cell);
+                int row = Position.rowOf(cell);
+                int col = Position.colOf(cell);
+                if ((symmetry & 1) != 0) {
+                    level = Position.LEVELS - 1 - level;
+                }
+                if ((symmetry & 2) != 0) {
+                    row = Position.ROWS - 1 - row;
+                }
+                if ((symmetry & 4) != 0) {
+                    col = Position.COLS - 1 - col;
+                }
+                if ((symmetry & 8) != 0) {
+                    int swap = row;
+                    row = col;
+                    col = swap;
+                }
+                MIRRORED[symmetry * Position.CELLS + cell] = Position.cell(level, row, col);
+            }
+        }
+
+        // The slots are the cells of the lower two levels in the quarter of rank 8 and file a,
+        // on or above its diagonal.
+        int slots = 0;
+        for (int cell = 0; cell < Position.CELLS; cell++) {
+            int level = Position.levelOf(cell);
+            int row = Position.rowOf(cell);
+            int col = Position.colOf(cell);
+            int symmetry = (level > 1 ? 1 : 0) | (row > 3 ? 2 : 0) | (col > 3 ? 4 : 0);
+            int flippedRow = row > 3 ? Position.ROWS - 1 - row : row;
+            int flippedCol = col > 3 ? Position.COLS - 1 - col : col;
+            SYMMETRY_OF_KING[cell] = flippedRow > flippedCol ? symmetry | 8 : symmetry;
+            KING_SLOT[cell] = -1;
+            if (level <= 1 && row <= col && col <= 3) {
+                KING_SLOT[cell] = slots;
+                KING_CELLS[slots++] = cell;
+            }
+        }
+    }
+
+    // The file of each piece type, or null if the directory has no table for it.
+    private final FileChannel[] channels = new FileChannel[Position.KING];
+    // The mapped table of each piece type, or null.
+    private final MappedByteBuffer[] tables = new MappedByteBuffer[Position.KING];
+
+    /**
+     * Opens the tables of a directory.
+     *
+     * @param directory the directory holding the table files
+     * @throws IOException if a table cannot be read or is not a table, or the directory has none
+     */
+    public Tablebase(Path directory) throws IOException {
+        boolean found = false;
+        try {
+            for (int type = Position.KNIGHT; type < Position.KING; type++) {
+                Path path = directory.resolve(fileName(type));
+                if (Files.exists(path)) {
+                    open(path, type);
+                    found = true;
+                }
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+        if (!found) {
+            throw new IOException(directory + " holds no tablebases");
+        }
+    }
+
+    /**
+     * Maps the table of one piece type.
+     *
+     * @param path the table file
+     * @param type the type of the piece of the stronger side
+     * @throws IOException if the file cannot be read or is not a table of the piece
+     */
+    private void open(Path path, int type) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        channels[type] = channel;
+        long size = channel.size();
+        long indexEnd = HEADER_BYTES + (BLOCKS + 1) * 4L;
+        if (size < indexEnd || size > Integer.MAX_VALUE) {
+            throw new IOException(path + " is not a tablebase");
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != type
+                || buffer.getInt(12) != BLOCKS || buffer.getInt(HEADER_BYTES) != indexEnd
+                || buffer.getInt(HEADER_BYTES + BLOCKS * 4) != size) {
+            throw new IOException(path + " is not a tablebase of version " + VERSION + " for " + materialName(type));
+        }
+        tables[type] = buffer;
+    }
+
+    /**
+     * Looks up a position. Positions with only the two kings are drawn; other positions
+     * are found if they have one more piece and there is a table for it.
+     *
+     * @param position the position
+     * @return DRAW, the number of plies to checkmate plus 1, or NOT_FOUND
+     */
+    public int probe(Position position) {
+        int pieces = 0;
+        for (int level = 0; level < Position.LEVELS; level++) {
+            pieces += Long.bitCount(position.occupancy(level));
+        }
+        if (pieces == 2) {
+            return position.hasKing(Position.WHITE) && position.hasKing(Position.BLACK) ? DRAW : NOT_FOUND;
+        }
+        if (pieces != 3) {
+            return NOT_FOUND;
+        }
+
+        int[] kings = {-1, -1};
+        int piece = -1;
+        for (int level = 0; level < Position.LEVELS; level++) {
+            for (long cells = position.occupancy(level); cells != 0; cells &= cells - 1) {
+                int cell = (level << 6) | Long.numberOfTrailingZeros(cells);
+                byte code = position.get(cell);
+                if (Position.typeOf(code) == Position.KING) {
+                    kings[Position.colourOf(code)] = cell;
+                } else {
+                    piece = cell;
+                }
+            }
+        }
+        if (piece < 0 || kings[Position.WHITE] < 0 || kings[Position.BLACK] < 0) {
+            return NOT_FOUND;
+        }
+        byte code = position.get(piece);
+        MappedByteBuffer table = tables[Position.typeOf(code)];
+        if (table == null) {
+            return NOT_FOUND;
+        }
+        int strong = Position.colourOf(code);
+        int side = position.getSideToMove() == strong ? STRONG_TO_MOVE : WEAK_TO_MOVE;
+        return entry(table, index(side, kings[strong], piece, kings[strong ^ 1]));
+    }
+
+    /**
+     * Reads an entry from a table.
+     *
+     * @param table the mapped table
+     * @param index the index of the entry
+     * @return the entry
+     */
+    private static int entry(MappedByteBuffer table, int index) {
+        int block = index / BLOCK_ENTRIES;
+        int offset = table.getInt(HEADER_BYTES + block * 4);
+        int values = Byte.toUnsignedInt(table.get(offset));
+        int bits = bitsFor(values);
+        if (bits == 0) {
+            return Byte.toUnsignedInt(table.get(offset + 1));
+        }
+        int bit = (index - block * BLOCK_ENTRIES) * bits;
+        int at = offset + 1 + values + (bit >>> 3);
+        // An index may cross into the next byte, so read two bytes when it does.
+        int shift = bit & 7;
+        int word = Byte.toUnsignedInt(table.get(at)) << 8;
+        if (shift + bits > 8) {
+            word |= Byte.toUnsignedInt(table.get(at + 1));
+        }
+        int value = (word >>> (16 - shift - bits)) & ((1 << bits) - 1);
+        return Byte.toUnsignedInt(table.get(offset + 1 + value));
+    }
+
+    /**
+     * Returns the number of bits the index of an entry takes in a block.
+     *
+     * @param values the number of different entries in the block, at least 1
+     * @return the number of bits needed for the largest index, 0 if there is only one entry
+     */
+    public static int bitsFor(int values) {
+        return 32 - Integer.numberOfLeadingZeros(values - 1);
+    }
+
+    /**
+     * Checks if the side to move wins a position.
+     *
+     * @param entry an entry other than NOT_FOUND
+     * @return true if the side to move checkmates, false if it is checkmated or the position is drawn
+     */
+    public static boolean isWin(int entry) {
+        return entry != DRAW && (entry & 1) == 0;
+    }
+
+    /**
+     * Returns the number of plies to checkmate in a position that is not drawn.
+     *
+     * @param entry an entry other than DRAW and NOT_FOUND
+     * @return the number of plies until one side is checkmated, with best play by both
+     */
+    public static int distance(int entry) {
+        return entry - 1;
+    }
+
+    /**
+     * Computes the index of a position in a table, mirroring it to put the stronger king in a slot.
+     *
+     * @param side       STRONG_TO_MOVE or WEAK_TO_MOVE
+     * @param strongKing the cell of the stronger king
+     * @param piece      the cell of the other piece of the stronger side
+     * @param weakKing   the cell of the lone king
+     * @return the index
+     */
+    public static int index(int side, int strongKing, int piece, int weakKing) {
+        int base = SYMMETRY_OF_KING[strongKing] * Position.CELLS;
+        int slot = KING_SLOT[MIRRORED[base + strongKing]];
+        return ((side * KING_SLOTS + slot) * Position.CELLS + MIRRORED[base + piece]) * Position.CELLS
+                + MIRRORED[base + weakKing];
+    }
+
+    /**
+     * Mirrors a cell.
+     *
+     * @param symmetry the way of mirroring, from 0 to SYMMETRIES - 1, where 0 leaves the cell as it is
+     * @param cell     the cell index
+     * @return the mirrored cell
+     */
+    public static int mirror(int symmetry, int cell) {
+        return MIRRORED[symmetry * Position.CELLS + cell];
+    }
+
+    /**
+     * Returns the cell of a king slot.
+     *
+     * @param slot the slot, from 0 to KING_SLOTS - 1
+     * @return the cell index
+     */
+    public static int kingCell(int slot) {
+        return KING_CELLS[slot];
+    }
+
+    /**
+     * Returns the name of the material of a table, such as "KQK".
+     *
+     * @param type the type of the piece of the stronger side
+     * @return the name
+     */
+    public static String materialName(int type) {
+        return "K" + LETTERS.charAt(type) + "K";
+    }
+
+    /**
+     * Returns the name of the file of a table, such as "KQK.tb".
+     *
+     * @param type the type of the piece of the stronger side
+     * @return the file name
+     */
+    public static String fileName(int type) {
+        return materialName(type) + ".tb";
+    }
+
+    /**
+     * Checks if there is a table for a piece type.
+     *
+     * @param type the type of the piece of the stronger side
+     * @return true if the table was found in the directory, false otherwise
+     */
+    public boolean hasTable(int type) {
+        return type > 0 && type < Position.KING && tables[type] != null;
+    }
+
+    /**
+     * Closes the tables. The mappings stay valid until they are garbage collected.
+     *
+     * @throws IOException if closing a file fails
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (FileChannel channel : channels) {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
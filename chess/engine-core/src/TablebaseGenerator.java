@@ -0,0 +1,709 @@
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generates the tables of Tablebase by retrograde analysis. Every position of a king and
+ * one piece against a king is first marked as checkmate, stalemate or not yet known.
+ * Then each pass works backwards from the positions whose result the last pass found:
+ * <ul>
+ *     <li>from a position the lone king loses in n plies, every position the stronger
+ *     side could have moved from, and not yet known, is won in n + 1 plies;</li>
+ *     <li>from a position the stronger side wins in n plies, every position the lone
+ *     king could have moved from is lost in n + 1 plies if every one of its moves leads
+ *     to a position already known to be won.</li>
+ * </ul>
+ * Positions still not known when a pass finds nothing are drawn. As the piece moves the
+ * same way backwards as forwards, and a capture leaves only the kings, no captures have
+ * to be taken back.
+ * <p>
+ * Each pass is split among worker threads by the slot of the stronger king. A pass only
+ * writes the entries of one side to move, and only reads the other side's, except to
+ * check that an entry is still unknown, so threads that find the same position write the
+ * same value and the result does not depend on how the work is split.
+ * <p>
+ * A written table can be checked with verify, which compares the entry of every position
+ * with the entries of the positions its legal moves lead to, found with the move generator
+ * rather than by taking moves back.
+ */
+public class TablebaseGenerator {
+    // The entry of a position that cannot occur, while generating.
+    private static final byte ILLEGAL = (byte) 0xFF;
+    // The largest entry a table can hold.
+    private static final int MAX_ENTRY = 0xFE;
+    // The number of random positions, in any colours and mirrored any way, that verify checks
+    // after the positions stored in the table, and their seed.
+    private static final int RANDOM_CHECKS = 300_000;
+    private static final long RANDOM_SEED = 1;
+    // The most failures verify prints; the rest are only counted.
+    private static final int MAX_REPORTED = 10;
+
+    // The ways of mirroring the board that leave the cell of each king slot where it is,
+    // indexed by slot. Positions that differ only by one of them have separate entries.
+    private static final int[][] TWIN_SYMMETRIES = new int[Tablebase.KING_SLOTS][];
+
+    static {
+        for (int slot = 0; slot < Tablebase.KING_SLOTS; slot++) {
+            int cell = Tablebase.kingCell(slot);
+            int count = 0;
+            int[] symmetries = new int[Tablebase.SYMMETRIES];
+            for (int symmetry = 0; symmetry < Tablebase.SYMMETRIES; symmetry++) {
+                if (Tablebase.mirror(symmetry, cell) == cell) {
+                    symmetries[count++] = symmetry;
+                }
+            }
+            TWIN_SYMMETRIES[slot] = Arrays.copyOf(symmetries, count);
+        }
+    }
+
+    // The type of the piece of the stronger side.
+    private final int type;
+    // The entries, indexed as in Tablebase, with ILLEGAL for positions that cannot occur.
+    private final byte[] entries = new byte[Tablebase.ENTRIES];
+
+    /**
+     * Constructs a generator.
+     *
+     * @param type the type of the piece of the stronger side: a knight, bishop, rook or queen
+     */
+    public TablebaseGenerator(int type) {
+        if (type < Position.KNIGHT || type > Position.QUEEN) {
+            throw new IllegalArgumentException("Tables hold a knight, bishop, rook or queen, got type " + type);
+        }
+        this.type = type;
+    }
+
+    /**
+     * Generates the table.
+     *
+     * @param workers the threads to run the passes on
+     * @return the number of passes, which is one more than the longest distance to checkmate
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    public int generate(ExecutorService workers) throws InterruptedException {
+        runPass(workers, this::initialize);
+        int passes = 1;
+        for (int entry = 1; ; entry++) {
+            if (entry + 1 > MAX_ENTRY) {
+                throw new IllegalStateException(Tablebase.materialName(type) + " has mates longer than a table can hold");
+            }
+            int found = entry;
+            // Positions lost in an even number of plies have odd entries, and lead to wins for the stronger side.
+            boolean fromLosses = (entry & 1) != 0;
+            if (runPass(workers, slot -> fromLosses ? addWins(slot, found) : addLosses(slot, found)) == 0) {
+                return passes;
+            }
+            passes++;
+        }
+    }
+
+    /**
+     * Runs one pass over every king slot on the worker threads and waits for it to end.
+     *
+     * @param workers the threads to run the pass on
+     * @param pass    the work of the pass for one slot, returning the number of entries set
+     * @return the number of entries set, counting an entry set by several threads once for each
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    private long runPass(ExecutorService workers, SlotPass pass) throws InterruptedException {
+        List<Callable<Long>> tasks = new ArrayList<>();
+        for (int slot = 0; slot < Tablebase.KING_SLOTS; slot++) {
+            int task = slot;
+            tasks.add(() -> pass.run(task));
+        }
+        long total = 0;
+        for (Future<Long> result : workers.invokeAll(tasks)) {
+            try {
+                total += result.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Generating " + Tablebase.materialName(type) + " failed", e.getCause());
+            }
+        }
+        return total;
+    }
+
+    /**
+     * The work of one pass for the positions of one king slot.
+     */
+    private interface SlotPass {
+        /**
+         * Runs the pass for one slot.
+         *
+         * @param slot the slot of the stronger king
+         * @return the number of entries set
+         */
+        long run(int slot);
+    }
+
+    /**
+     * Marks the positions of one king slot that cannot occur, and finds the checkmates.
+     *
+     * @param slot the slot of the stronger king
+     * @return the number of checkmates
+     */
+    private long initialize(int slot) {
+        long mates = 0;
+        int strongKing = Tablebase.kingCell(slot);
+        for (int side = Tablebase.STRONG_TO_MOVE; side <= Tablebase.WEAK_TO_MOVE; side++) {
+            for (int piece = 0; piece < Position.CELLS; piece++) {
+                for (int weakKing = 0; weakKing < Position.CELLS; weakKing++) {
+                    int index = Tablebase.index(side, strongKing, piece, weakKing);
+                    if (!isLegal(side, strongKing, piece, weakKing)) {
+                        entries[index] = ILLEGAL;
+                    } else if (side == Tablebase.WEAK_TO_MOVE && !hasMove(strongKing, piece, weakKing)
+                            && attacks(piece, weakKing, strongKing)) {
+                        entries[index] = 1;
+                        mates++;
+                    }
+                }
+            }
+        }
+        return mates;
+    }
+
+    /**
+     * Finds the positions of the stronger side won by moving into a position, of one king
+     * slot, that the lone king loses.
+     *
+     * @param slot  the slot of the stronger king of the lost positions
+     * @param found the entry of the positions found by the last pass
+     * @return the number of won positions found
+     */
+    private long addWins(int slot, int found) {
+        long count = 0;
+        byte won = (byte) (found + 1);
+        int strongKing = Tablebase.kingCell(slot);
+        for (int piece = 0; piece < Position.CELLS; piece++) {
+            for (int weakKing = 0; weakKing < Position.CELLS; weakKing++) {
+                if (Byte.toUnsignedInt(entries[Tablebase.index(Tablebase.WEAK_TO_MOVE, strongKing, piece, weakKing)]) != found) {
+                    continue;
+                }
+                // The stronger king came from a neighbouring empty cell.
+                for (int level = 0; level < Position.LEVELS; level++) {
+                    for (long from = Attacks.king(strongKing, level); from != 0; from &= from - 1) {
+                        int cell = (level << 6) | Long.numberOfTrailingZeros(from);
+                        if (cell != piece && cell != weakKing) {
+                            count += setIfUnknown(Tablebase.index(Tablebase.STRONG_TO_MOVE, cell, piece, weakKing), won);
+                        }
+                    }
+                }
+                // The piece came from a cell it reaches, as its moves can be taken back the same way.
+                if (type == Position.KNIGHT) {
+                    for (int level = 0; level < Position.LEVELS; level++) {
+                        for (long from = Attacks.knight(piece, level); from != 0; from &= from - 1) {
+                            int cell = (level << 6) | Long.numberOfTrailingZeros(from);
+                            if (cell != strongKing && cell != weakKing) {
+                                count += setIfUnknown(Tablebase.index(Tablebase.STRONG_TO_MOVE, strongKing, cell, weakKing), won);
+                            }
+                        }
+                    }
+                    continue;
+                }
+                for (int direction = firstDirection(); direction < lastDirection(); direction++) {
+                    int length = Rays.length(piece, direction);
+                    for (int i = 0; i < length; i++) {
+                        int cell = Rays.target(piece, direction, i);
+                        if (cell == strongKing || cell == weakKing) {
+                            break;
+                        }
+                        count += setIfUnknown(Tablebase.index(Tablebase.STRONG_TO_MOVE, strongKing, cell, weakKing), won);
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds the positions the lone king loses, because every move from them leads to a
+     * position the stronger side wins, by taking back its moves from the positions of one
+     * king slot that the stronger side wins.
+     *
+     * @param slot  the slot of the stronger king of the won positions
+     * @param found the entry of the positions found by the last pass
+     * @return the number of lost positions found
+     */
+    private long addLosses(int slot, int found) {
+        long count = 0;
+        byte lost = (byte) (found + 1);
+        int strongKing = Tablebase.kingCell(slot);
+        for (int piece = 0; piece < Position.CELLS; piece++) {
+            for (int weakKing = 0; weakKing < Position.CELLS; weakKing++) {
+                if (Byte.toUnsignedInt(entries[Tablebase.index(Tablebase.STRONG_TO_MOVE, strongKing, piece, weakKing)]) != found) {
+                    continue;
+                }
+                for (int level = 0; level < Position.LEVELS; level++) {
+                    for (long from = Attacks.king(weakKing, level); from != 0; from &= from - 1) {
+                        int cell = (level << 6) | Long.numberOfTrailingZeros(from);
+                        if (cell == strongKing || cell == piece) {
+                            continue;
+                        }
+                        int index = Tablebase.index(Tablebase.WEAK_TO_MOVE, strongKing, piece, cell);
+                        if (entries[index] == 0 && isLost(strongKing, piece, cell)) {
+                            count += setIfUnknown(index, lost);
+                        }
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Sets an entry, unless it is already known or cannot occur, together with the entries
+     * of its twins: the positions mirrored in a way that leaves the stronger king where
+     * it is. A pass reaches a position through only one of its twins, so setting them
+     * together keeps them the same.
+     *
+     * @param index the index of the entry
+     * @param entry the entry to set
+     * @return the number of entries set
+     */
+    private int setIfUnknown(int index, byte entry) {
+        if (entries[index] != 0) {
+            return 0;
+        }
+        int side = index / (Tablebase.KING_SLOTS * Position.CELLS * Position.CELLS);
+        int slot = index / (Position.CELLS * Position.CELLS) % Tablebase.KING_SLOTS;
+        int piece = index / Position.CELLS % Position.CELLS;
+        int weakKing = index % Position.CELLS;
+        int strongKing = Tablebase.kingCell(slot);
+        int count = 0;
+        for (int symmetry : TWIN_SYMMETRIES[slot]) {
+            int twin = Tablebase.index(side, strongKing, Tablebase.mirror(symmetry, piece), Tablebase.mirror(symmetry, weakKing));
+            if (entries[twin] == 0) {
+                entries[twin] = entry;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks if every move of the lone king, to move, leads to a position known to be won
+     * by the stronger side. Taking the piece, when it is not defended, leads to a draw.
+     *
+     * @param strongKing the cell of the stronger king
+     * @param piece      the cell of the piece
+     * @param weakKing   the cell of the lone king
+     * @return true if the position is lost, false if a move escapes or leads to a position not yet known
+     */
+    private boolean isLost(int strongKing, int piece, int weakKing) {
+        for (int level = 0; level < Position.LEVELS; level++) {
+            for (long to = Attacks.king(weakKing, level); to != 0; to &= to - 1) {
+                int cell = (level << 6) | Long.numberOfTrailingZeros(to);
+                if (cell == strongKing || Attacks.kingAttacks(strongKing, cell)) {
+                    continue;
+                }
+                if (cell == piece) {
+                    return false;
+                }
+                // The lone king no longer blocks the piece once it has moved.
+                if (!attacks(piece, cell, strongKing)
+                        && entries[Tablebase.index(Tablebase.STRONG_TO_MOVE, strongKing, piece, cell)] == 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the lone king, to move, has a legal move.
+     *
+     * @param strongKing the cell of the stronger king
+     * @param piece      the cell of the piece
+     * @param weakKing   the cell of the lone king
+     * @return true if the king can move or take the piece, false otherwise
+     */
+    private boolean hasMove(int strongKing, int piece, int weakKing) {
+        for (int level = 0; level < Position.LEVELS; level++) {
+            for (long to = Attacks.king(weakKing, level); to != 0; to &= to - 1) {
+                int cell = (level << 6) | Long.numberOfTrailingZeros(to);
+                if (cell != strongKing && !Attacks.kingAttacks(strongKing, cell)
+                        && (cell == piece || !attacks(piece, cell, strongKing))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a position can occur: the three pieces are on different cells, the kings
+     * are not next to each other and the side not to move is not in check.
+     *
+     * @param side       STRONG_TO_MOVE or WEAK_TO_MOVE
+     * @param strongKing the cell of the stronger king
+     * @param piece      the cell of the piece
+     * @param weakKing   the cell of the lone king
+     * @return true if the position is legal, false otherwise
+     */
+    private boolean isLegal(int side, int strongKing, int piece, int weakKing) {
+        if (piece == strongKing || piece == weakKing || weakKing == strongKing
+                || Attacks.kingAttacks(strongKing, weakKing)) {
+            return false;
+        }
+        return side == Tablebase.WEAK_TO_MOVE || !attacks(piece, weakKing, strongKing);
+    }
+
+    /**
+     * Checks if the piece attacks a cell.
+     *
+     * @param piece   the cell of the piece
+     * @param target  the cell attacked
+     * @param blocker the cell of the only other piece that can stand in the way
+     * @return true if the piece could move to the target, false otherwise
+     */
+    private boolean attacks(int piece, int target, int blocker) {
+        if (type == Position.KNIGHT) {
+            return Attacks.knightAttacks(piece, target);
+        }
+        int direction = Rays.direction(piece, target);
+        if (direction < firstDirection() || direction >= lastDirection()) {
+            return false;
+        }
+        // The blocker is in the way if it lies on the same ray and is nearer.
+        return Rays.direction(piece, blocker) != direction || distance(piece, blocker) > distance(piece, target);
+    }
+
+    /**
+     * Returns the number of king steps between two cells.
+     *
+     * @param from the first cell
+     * @param to   the second cell
+     * @return the largest difference in level, row or column
+     */
+    private static int distance(int from, int to) {
+        return Math.max(Math.abs(Position.levelOf(to) - Position.levelOf(from)),
+                Math.max(Math.abs(Position.rowOf(to) - Position.rowOf(from)),
+                        Math.abs(Position.colOf(to) - Position.colOf(from))));
+    }
+
+    /**
+     * Returns the first ray direction the piece slides along.
+     *
+     * @return the direction index
+     */
+    private int firstDirection() {
+        return type == Position.BISHOP ? Rays.BISHOP_FIRST : type == Position.ROOK ? Rays.ROOK_FIRST : Rays.QUEEN_FIRST;
+    }
+
+    /**
+     * Returns the end of the range of ray directions the piece slides along.
+     *
+     * @return the direction index, exclusive
+     */
+    private int lastDirection() {
+        return type == Position.BISHOP ? Rays.BISHOP_LAST : type == Position.ROOK ? Rays.ROOK_LAST : Rays.QUEEN_LAST;
+    }
+
+    /**
+     * Counts the positions with each entry.
+     *
+     * @return the number of positions with each entry, indexed by entry, illegal positions left out
+     */
+    public long[] countEntries() {
+        long[] counts = new long[MAX_ENTRY + 1];
+        for (byte entry : entries) {
+            if (entry != ILLEGAL) {
+                counts[Byte.toUnsignedInt(entry)]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Writes the table, compressing each block into the list of its different entries and
+     * the index into the list of each entry. An illegal position takes the first entry.
+     *
+     * @param path the table file, which is replaced
+     * @return the size of the file in bytes
+     * @throws IOException if the file cannot be written
+     */
+    public long write(Path path) throws IOException {
+        ByteArrayOutputStream blocks = new ByteArrayOutputStream();
+        int[] offsets = new int[Tablebase.BLOCKS + 1];
+        int dataStart = Tablebase.HEADER_BYTES + offsets.length * 4;
+        // The index of each entry in the list of the block, or -1 if it is not in the list.
+        int[] indices = new int[MAX_ENTRY + 1];
+        byte[] values = new byte[Tablebase.BLOCK_ENTRIES];
+        for (int block = 0; block < Tablebase.BLOCKS; block++) {
+            offsets[block] = dataStart + blocks.size();
+            int start = block * Tablebase.BLOCK_ENTRIES;
+            int end = start + Tablebase.BLOCK_ENTRIES;
+            Arrays.fill(indices, -1);
+            int count = 0;
+            for (int i = start; i < end; i++) {
+                if (entries[i] != ILLEGAL && indices[Byte.toUnsignedInt(entries[i])] < 0) {
+                    indices[Byte.toUnsignedInt(entries[i])] = count;
+                    values[count++] = entries[i];
+                }
+            }
+            if (count == 0) {
+                values[count++] = Tablebase.DRAW; // Only illegal positions
+            }
+            blocks.write(count);
+            blocks.write(values, 0, count);
+
+            int bits = Tablebase.bitsFor(count);
+            int buffer = 0;
+            int buffered = 0;
+            for (int i = start; i < end; i++) {
+                int index = entries[i] == ILLEGAL ? 0 : indices[Byte.toUnsignedInt(entries[i])];
+                buffer = buffer << bits | index;
+                buffered += bits;
+                while (buffered >= 8) {
+                    buffered -= 8;
+                    blocks.write(buffer >>> buffered);
+                }
+            }
+            // A block holds a multiple of 8 positions, so no bits are left over.
+        }
+        offsets[Tablebase.BLOCKS] = dataStart + blocks.size();
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(Tablebase.MAGIC);
+            out.writeInt(Tablebase.VERSION);
+            out.writeInt(type);
+            out.writeInt(Tablebase.BLOCKS);
+            for (int offset : offsets) {
+                out.writeInt(offset);
+            }
+            blocks.writeTo(out);
+        }
+        return offsets[Tablebase.BLOCKS];
+    }
+
+    /**
+     * Checks a table: the entry of every position it stores, and of random positions in
+     * any colours and mirrored any way, must follow from the entries of the positions its
+     * legal moves lead to. A position without moves is checkmate or stalemate. Otherwise
+     * the side to move wins as fast as it can if a move leads to a loss for the other
+     * side, draws if a move leads to a draw, and else loses as slowly as it can. Prints
+     * the first few failures.
+     *
+     * @param tablebase the tablebases, holding the table of the type
+     * @param type      the type of the piece of the stronger side
+     * @return the number of positions whose entry is wrong
+     */
+    public static long verify(Tablebase tablebase, int type) {
+        Position position = new Position();
+        KingSafety safety = new KingSafety();
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        long failures = 0;
+        for (int slot = 0; slot < Tablebase.KING_SLOTS; slot++) {
+            for (int side = Tablebase.STRONG_TO_MOVE; side <= Tablebase.WEAK_TO_MOVE; side++) {
+                for (int piece = 0; piece < Position.CELLS; piece++) {
+                    for (int weakKing = 0; weakKing < Position.CELLS; weakKing++) {
+                        failures += verify(tablebase, type, Tablebase.kingCell(slot), piece, weakKing,
+                                Position.WHITE, side, position, safety, moves, failures);
+                    }
+                }
+            }
+        }
+        Random random = new Random(RANDOM_SEED);
+        for (int i = 0; i < RANDOM_CHECKS; i++) {
+            failures += verify(tablebase, type, random.nextInt(Position.CELLS), random.nextInt(Position.CELLS),
+                    random.nextInt(Position.CELLS), random.nextInt(2), random.nextInt(2), position, safety, moves, failures);
+        }
+        return failures;
+    }
+
+    /**
+     * Checks the entry of one position against the entries of the positions its legal
+     * moves lead to, if the position can occur.
+     *
+     * @param tablebase  the tablebases
+     * @param type       the type of the piece of the stronger side
+     * @param strongKing the cell of the stronger king
+     * @param piece      the cell of the piece
+     * @param weakKing   the cell of the lone king
+     * @param strong     the colour of the stronger side
+     * @param side       STRONG_TO_MOVE or WEAK_TO_MOVE
+     * @param position   the position to set up, reused between calls
+     * @param safety     the king safety to generate the moves with, reused between calls
+     * @param moves      the buffer for the moves, reused between calls
+     * @param failures   the number of failures so far, to decide whether to print this one
+     * @return 1 if the entry is wrong, 0 if it is right or the position cannot occur
+     */
+    private static int verify(Tablebase tablebase, int type, int strongKing, int piece, int weakKing, int strong,
+                              int side, Position position, KingSafety safety, int[] moves, long failures) {
+        if (strongKing == piece || strongKing == weakKing || piece == weakKing
+                || Attacks.kingAttacks(strongKing, weakKing)) {
+            return 0;
+        }
+        position.clear();
+        position.set(strongKing, Position.piece(Position.KING, strong));
+        position.set(piece, Position.piece(type, strong));
+        position.set(weakKing, Position.piece(Position.KING, strong ^ 1));
+        int mover = side == Tablebase.STRONG_TO_MOVE ? strong : strong ^ 1;
+        position.setSideToMove(mover);
+        int waiting = mover ^ 1;
+        if (KingSafety.isAttacked(position, position.findKing(waiting), mover, -1)) {
+            return 0; // The side not to move is in check
+        }
+
+        int count = MoveGenerator.generateLegalMoves(position, safety, moves, 0);
+        int expected;
+        if (count == 0) {
+            expected = safety.isInCheck() ? 1 : Tablebase.DRAW;
+        } else {
+            // The shortest win and the longest loss for the side to move, in plies.
+            int fastestWin = Integer.MAX_VALUE;
+            int slowestLoss = -1;
+            boolean canDraw = false;
+            for (int i = 0; i < count; i++) {
+                position.makeMove(moves[i]);
+                int entry = tablebase.probe(position);
+                position.unmakeMove();
+                if (entry == Tablebase.DRAW || entry == Tablebase.NOT_FOUND) {
+                    canDraw = true; // Taking the piece leaves only the kings
+                } else if (Tablebase.isWin(entry)) {
+                    slowestLoss = Math.max(slowestLoss, Tablebase.distance(entry) + 1);
+                } else {
+                    fastestWin = Math.min(fastestWin, Tablebase.distance(entry) + 1);
+                }
+            }
+            expected = fastestWin != Integer.MAX_VALUE ? fastestWin + 1 : canDraw ? Tablebase.DRAW : slowestLoss + 1;
+        }
+        int entry = tablebase.probe(position);
+        if (entry == expected) {
+            return 0;
+        }
+        if (failures < MAX_REPORTED) {
+            System.out.println("FAILED " + PositionNotation.toText(position) + ": entry " + entry + ", expected " + expected);
+        }
+        return 1;
+    }
+
+    /**
+     * Returns the piece type of a material name.
+     *
+     * @param material a material name such as KQK, in any case
+     * @return the type of the piece of the stronger side, or -1 if the name is not a table's
+     */
+    private static int typeOf(String material) {
+        for (int type = Position.KNIGHT; type <= Position.QUEEN; type++) {
+            if (Tablebase.materialName(type).equalsIgnoreCase(material)) {
+                return type;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Generates tables into a directory, or checks them with verify. The arguments are
+     * the directory, optionally the number of worker threads, and optionally the materials
+     * to generate, such as KQK, which are KQK and KRK if none are given. To check tables,
+     * they are "verify", the directory and optionally the materials, which are all the
+     * tables in the directory if none are given; the exit status is 1 if a check fails.
+     *
+     * @param args command line arguments
+     * @throws IOException          if a table cannot be read or written
+     * @throws InterruptedException if the main thread is interrupted
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1 || (args[0].equals("verify") && args.length < 2)) {
+            System.err.println("Usage: TablebaseGenerator <directory> [threads] [material]...");
+            System.err.println("       TablebaseGenerator verify <directory> [material]...");
+            return;
+        }
+        if (args[0].equals("verify")) {
+            if (!verifyTables(Paths.get(args[1]), Arrays.copyOfRange(args, 2, args.length))) {
+                System.exit(1);
+            }
+            return;
+        }
+        Path directory = Paths.get(args[0]);
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        List<String> materials = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) {
+            materials.add(args[i]);
+        }
+        if (materials.isEmpty()) {
+            materials.add(Tablebase.materialName(Position.QUEEN));
+            materials.add(Tablebase.materialName(Position.ROOK));
+        }
+
+        Files.createDirectories(directory);
+        ExecutorService workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "tablebase-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (String material : materials) {
+                int type = typeOf(material);
+                if (type < 0) {
+                    System.err.println("Unknown material " + material + ", expected one of KNK, KBK, KRK or KQK");
+                    continue;
+                }
+                long start = System.nanoTime();
+                TablebaseGenerator generator = new TablebaseGenerator(type);
+                int passes = generator.generate(workers);
+                long bytes = generator.write(directory.resolve(Tablebase.fileName(type)));
+                long[] counts = generator.countEntries();
+                long won = 0;
+                long lost = 0;
+                for (int entry = 1; entry < counts.length; entry++) {
+                    if ((entry & 1) == 0) {
+                        won += counts[entry];
+                    } else {
+                        lost += counts[entry];
+                    }
+                }
+                System.out.println(Tablebase.materialName(type) + ": " + won + " won, " + lost + " lost and "
+                        + counts[Tablebase.DRAW] + " drawn positions, longest mate " + (passes - 1) + " plies, "
+                        + bytes + " bytes, " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Checks the tables of a directory with verify and prints the result of each.
+     *
+     * @param directory the directory of the tables
+     * @param materials the materials to check, or none for every table in the directory
+     * @return true if every table checked is right and at least one was checked, false otherwise
+     * @throws IOException if the tables cannot be read
+     */
+    private static boolean verifyTables(Path directory, String[] materials) throws IOException {
+        boolean passed = true;
+        int checked = 0;
+        try (Tablebase tablebase = new Tablebase(directory)) {
+            for (int type = Position.KNIGHT; type <= Position.QUEEN; type++) {
+                boolean wanted = materials.length == 0 ? tablebase.hasTable(type)
+                        : Arrays.stream(materials).anyMatch(Tablebase.materialName(type)::equalsIgnoreCase);
+                if (!wanted) {
+                    continue;
+                }
+                if (!tablebase.hasTable(type)) {
+                    System.out.println(Tablebase.materialName(type) + ": no table in " + directory);
+                    passed = false;
+                    continue;
+                }
+                long failures = verify(tablebase, type);
+                System.out.println(Tablebase.materialName(type) + ": " + (failures == 0 ? "ok" : failures + " wrong entries"));
+                passed &= failures == 0;
+                checked++;
+            }
+        }
+        return passed && checked > 0;
+    }
+}
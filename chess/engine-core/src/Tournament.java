@@ -0,0 +1,356 @@
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Plays many headless games between two engines at once and measures their strength
+ * against each other. The engines differ by their search limits, for example a depth
+ * against a node budget.
+ * <p>
+ * Games are not tied to threads. Each game is a SelfPlayGame that waits in the queue
+ * of a fixed pool of worker threads, one task per move: a worker plays a move of the
+ * game with its own Search, then queues the game again behind the others. So thousands
+ * of games can be open at once on as many threads as there are cores, and each takes
+ * only the memory of its Position. Each worker keeps a search and transposition table
+ * per engine for all the games it plays.
+ * <p>
+ * Games are played in pairs from the same random opening, the engines swapping colours,
+ * so that neither engine profits from a lucky opening. Every finished game is written
+ * to the results file as it ends, with a summary of the score, an Elo estimate and the
+ * throughput every few games and at the end:
+ * <pre>
+ * game=12 white=depth:3 black=nodes:5000 result=1-0 reason="Checkmate" plies=87 millis=1234
+ * games=100 engine=depth:3 opponent=nodes:5000 wins=40 draws=20 losses=40 score=0.500 elo=+0.0 error=55.1 games/hour=12345
+ * </pre>
+ * The moves of the games can also be kept, in a GameArchive.
+ */
+public class Tournament {
+    // The number of random moves each opening starts with.
+    private static final int OPENING_PLIES = 4;
+    // The number of finished games between summaries.
+    private static final int SUMMARY_INTERVAL = 100;
+    // The size of the transposition table of each engine on each worker, in megabytes.
+    private static final int TABLE_MEGABYTES = 8;
+    // The number of standard errors either side of the Elo estimate, for a 95% interval.
+    private static final double CONFIDENCE_Z = 1.96;
+
+    /**
+     * The searches one worker thread uses for every game it plays, one per engine.
+     */
+    private static class Engines {
+        // The transposition tables and the searches using them, indexed by engine.
+        private final TranspositionTable[] tables = new TranspositionTable[2];
+        private final Search[] searches = new Search[2];
+
+        /**
+         * Constructs the searches of a worker.
+         */
+        private Engines() {
+            for (int engine = 0; engine < 2; engine++) {
+                tables[engine] = new TranspositionTable(TABLE_MEGABYTES);
+                searches[engine] = new Search(tables[engine]);
+            }
+        }
+    }
+
+    // The names and search limits of the two engines.
+    private final String[] names;
+    private final SearchLimits[] limits;
+    // The number of games to play, and the number played at once.
+    private final int games;
+    private final int concurrency;
+    // The seed of the random openings.
+    private final long seed;
+    // Where results are written, from every worker.
+    private final PrintStream results;
+    // Where finished games are appended, or null.
+    private GameArchiveWriter archive;
+    // The worker threads.
+    private final ExecutorService workers;
+    // The searches of each worker thread.
+    private final ThreadLocal<Engines> engines = ThreadLocal.withInitial(Engines::new);
+    // Counted down as each game finishes.
+    private final CountDownLatch finished;
+
+    // The number of games started, guarded by this.
+    private int started;
+    // The wins, draws and losses of the first engine, guarded by this.
+    private int wins;
+    private int draws;
+    private int losses;
+    // The System.nanoTime the tournament started at.
+    private long startNanos;
+    // The first error a worker ran into, or null.
+    private volatile Throwable failure;
+
+    /**
+     * Constructs a tournament.
+     *
+     * @param names       the names of the two engines
+     * @param limits      the search limits of the two engines, which must not be changed while the tournament runs
+     * @param games       the number of games to play
+     * @param concurrency the number of games played at once
+     * @param threads     the number of worker threads
+     * @param seed        the seed of the random openings
+     * @param results     where results are written
+     */
+    public Tournament(String[] names, SearchLimits[] limits, int games, int concurrency, int threads,
+                      long seed, PrintStream results) {
+        if (games < 1 || concurrency < 1 || threads < 1) {
+            throw new IllegalArgumentException("A tournament needs at least 1 game, 1 game at once and 1 thread");
+        }
+        this.names = names.clone();
+        this.limits = limits.clone();
+        this.games = games;
+        this.concurrency = concurrency;
+        this.seed = seed;
+        this.results = results;
+        this.finished = new CountDownLatch(games);
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "tournament-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sets the archive finished games are appended to.
+     *
+     * @param archive the archive, or null to keep no games
+     */
+    public void setArchive(GameArchiveWriter archive) {
+        this.archive = archive;
+    }
+
+    /**
+     * Plays every game of the tournament and writes the final summary.
+     *
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public void run() throws InterruptedException {
+        startNanos = System.nanoTime();
+        for (int i = 0; i < Math.min(concurrency, games); i++) {
+            startNextGame();
+        }
+        finished.await();
+        workers.shutdownNow();
+        if (failure != null) {
+            throw new IllegalStateException("A game failed", failure);
+        }
+        if (games % SUMMARY_INTERVAL != 0) {
+            send(summary());
+        }
+    }
+
+    /**
+     * Starts the next game, if any are left to play.
+     */
+    private void startNextGame() {
+        int number;
+        synchronized (this) {
+            if (started == games) {
+                return;
+            }
+            number = started++;
+        }
+        // The two games of a pair share an opening and swap colours.
+        SelfPlayGame game = new SelfPlayGame(number, number & 1, new Random(seed + number / 2), OPENING_PLIES);
+        if (game.isOver()) {
+            finishGame(game);
+        } else {
+            workers.execute(() -> playMove(game));
+        }
+    }
+
+    /**
+     * Plays the next move of a game on a worker thread, and queues the game again or
+     * finishes it.
+     *
+     * @param game the game
+     */
+    private void playMove(SelfPlayGame game) {
+        if (failure != null) {
+            return;
+        }
+        try {
+            int engine = game.getEngineToMove();
+            Engines local = engines.get();
+            local.tables[engine].newSearch();
+            if (game.playMove(local.searches[engine], limits[engine])) {
+                finishGame(game);
+            } else {
+                workers.execute(() -> playMove(game));
+            }
+        } catch (RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Records a finished game, writes it to the results and the archive, and starts the next game.
+     *
+     * @param game the finished game
+     */
+    private void finishGame(SelfPlayGame game) {
+        if (archive != null) {
+            try {
+                archive.append(game.getPosition(), game.getResult(), game.getState());
+            } catch (IOException e) {
+                fail(e);
+                return;
+            }
+        }
+        int points = game.getPoints(0);
+        String summary = null;
+        synchronized (this) {
+            if (points == SelfPlayGame.WIN_POINTS) {
+                wins++;
+            } else if (points == SelfPlayGame.DRAW_POINTS) {
+                draws++;
+            } else {
+                losses++;
+            }
+            if ((wins + draws + losses) % SUMMARY_INTERVAL == 0) {
+                summary = summary();
+            }
+        }
+        int white = game.getWhiteEngine();
+        send("game=" + game.getNumber() + " white=" + names[white] + " black=" + names[1 - white]
+                + " result=" + GameState.resultText(game.getResult()) + " reason=\"" + game.describeEnding() + "\""
+                + " plies=" + game.getPosition().getMoveCount() + " millis=" + game.getElapsedMillis());
+        if (summary != null) {
+            send(summary);
+        }
+        startNextGame();
+        finished.countDown();
+    }
+
+    /**
+     * Stops the tournament after an error, releasing the thread waiting in run.
+     *
+     * @param error the error
+     */
+    private void fail(Throwable error) {
+        if (failure == null) {
+            failure = error;
+        }
+        while (finished.getCount() > 0) {
+            finished.countDown();
+        }
+    }
+
+    /**
+     * Describes the score of the first engine so far.
+     *
+     * @return the summary line
+     */
+    private synchronized String summary() {
+        int played = wins + draws + losses;
+        double score = played == 0 ? 0.5 : (wins + draws * 0.5) / played;
+        // The standard deviation of the points of one game, and the error of their mean.
+        double variance = played == 0 ? 0 : (wins * (1 - score) * (1 - score) + draws * (0.5 - score) * (0.5 - score)
+                + losses * score * score) / played;
+        double error = played == 0 ? 0 : CONFIDENCE_Z * Math.sqrt(variance / played);
+        double eloError = (elo(score + error) - elo(score - error)) / 2;
+        double hours = (System.nanoTime() - startNanos) / 3.6e12;
+        return String.format("games=%d engine=%s opponent=%s wins=%d draws=%d losses=%d score=%.3f elo=%+.1f"
+                        + " error=%.1f games/hour=%.0f", played, names[0], names[1], wins, draws, losses, score,
+                elo(score), eloError, hours > 0 ? played / hours : 0);
+    }
+
+    /**
+     * Converts a score into the Elo difference that predicts it.
+     *
+     * @param score the fraction of the points scored
+     * @return the Elo difference, limited to about 1200 either way for a score of 0 or 1
+     */
+    private static double elo(double score) {
+        double bounded = Math.max(0.001, Math.min(0.999, score));
+        return -400 * Math.log10(1 / bounded - 1) + 0.0; // Adding 0.0 turns -0.0 into 0.0
+    }
+
+    /**
+     * Writes a line to the results. Lines are written whole, even when several workers
+     * write at once, and flushed so the results can be followed while the tournament runs.
+     *
+     * @param line the line to write
+     */
+    private void send(String line) {
+        synchronized (results) {
+            results.println(line);
+            results.flush();
+        }
+    }
+
+    /**
+     * Parses the search limits of an engine, given as comma separated limits such as
+     * "depth:3", "nodes:5000" or "movetime:100,depth:8".
+     *
+     * @param text the limits
+     * @return the parsed limits
+     */
+    public static SearchLimits parseLimits(String text) {
+        SearchLimits limits = new SearchLimits();
+        for (String limit : text.split(",")) {
+            int colon = limit.indexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("Expected a limit such as depth:3, got " + limit);
+            }
+            String name = limit.substring(0, colon);
+            long value = Long.parseLong(limit.substring(colon + 1));
+            switch (name) {
+                case "depth":
+                    limits.setDepth((int) value);
+                    break;
+                case "nodes":
+                    limits.setNodes(value);
+                    break;
+                case "movetime":
+                    limits.setMoveTime(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown limit " + name);
+            }
+        }
+        return limits;
+    }
+
+    /**
+     * Runs a tournament. The arguments, all optional, are the results file, the number of
+     * games, the number of games at once, the number of threads, the limits of the two
+     * engines as for parseLimits, the seed of the openings and a game archive to keep the
+     * games in.
+     *
+     * @param args command line arguments
+     * @throws IOException          if the results file cannot be opened
+     * @throws InterruptedException if the main thread is interrupted
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String file = args.length > 0 ? args[0] : "tournament.txt";
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        String first = args.length > 4 ? args[4] : "depth:3";
+        String second = args.length > 5 ? args[5] : "depth:2";
+        long seed = args.length > 6 ? Long.parseLong(args[6]) : 1;
+        String archiveFile = args.length > 7 ? args[7] : null;
+
+        try (PrintStream results = new PrintStream(new BufferedOutputStream(new FileOutputStream(file, true)),
+                false, StandardCharsets.UTF_8);
+             GameArchiveWriter archive = archiveFile == null ? null : new GameArchiveWriter(Paths.get(archiveFile))) {
+            Tournament tournament = new Tournament(new String[] {first, second},
+                    new SearchLimits[] {parseLimits(first), parseLimits(second)}, games, concurrency, threads, seed,
+                    results);
+            tournament.setArchive(archive);
+            tournament.run();
+            System.out.println(tournament.summary());
+        }
+    }
+}
@@ -0,0 +1,205 @@
+import java.util.Arrays;
+
+/**
+ * A fixed-size transposition table shared by any number of search threads without locks.
+ * <p>
+ * The table is a flat long array. Each entry takes two longs: the packed data, and the
+ * position hash XOR-ed with that data. A reader recomputes the hash from both longs and
+ * ignores the entry if it does not match, so an entry torn by two threads writing at
+ * once is simply treated as a miss instead of returning another position's data.
+ * <p>
+ * Entries are grouped in buckets of two. The first slot keeps the deepest result and is
+ * only replaced by a search at least as deep or by an entry from an older search; the
+ * second slot always takes the newest result that did not fit in the first.
+ * <p>
+ * The packed data holds the best move in bits 0-23, the score as a signed 16-bit value
+ * in bits 24-39, the depth in bits 40-47, the bound in bits 48-49 and the search age
+ * in bits 50-55. A bound is never 0, so valid data is never 0.
+ */
+public class TranspositionTable {
+    // The kinds of bound a stored score can be.
+    public static final int UPPER = 1;
+    public static final int LOWER = 2;
+    public static final int EXACT = 3;
+
+    // The number of longs in an entry and in a bucket.
+    private static final int ENTRY_LONGS = 2;
+    private static final int BUCKET_LONGS = 2 * ENTRY_LONGS;
+
+    // The stored entries, BUCKET_LONGS per bucket.
+    private final long[] table;
+    // The mask selecting a bucket from a hash.
+    private final int bucketMask;
+    // The age of the current search, stored with each entry to recognise stale ones.
+    private int age;
+
+    /**
+     * Constructs a table using at most the given amount of memory. The number of buckets
+     * is rounded down to a power of two.
+     *
+     * @param megabytes the memory budget in megabytes, at least 1
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("The table needs at least 1 MB, got " + megabytes);
+        }
+        long buckets = Long.highestOneBit((long) megabytes * 1024 * 1024 / (BUCKET_LONGS * Long.BYTES));
+        // Keep the array index within the range of an int.
+        buckets = Math.min(buckets, 1L << 28);
+        table = new long[(int) buckets * BUCKET_LONGS];
+        bucketMask = (int) buckets - 1;
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        Arrays.fill(table, 0);
+        age = 0;
+    }
+
+    /**
+     * Starts a new search, so that entries from earlier searches are replaced first.
+     */
+    public void newSearch() {
+        age = (age + 1) & 0x3F;
+    }
+
+    /**
+     * Looks up the data stored for a position.
+     *
+     * @param hash the hash of the position
+     * @return the packed data, or 0 if nothing is stored for the position
+     */
+    public long probe(long hash) {
+        int bucket = bucketIndex(hash);
+        for (int slot = bucket; slot < bucket + BUCKET_LONGS; slot += ENTRY_LONGS) {
+            long data = table[slot + 1];
+            if ((table[slot] ^ data) == hash && data != 0) {
+                return data;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Stores the result of searching a position.
+     *
+     * @param hash  the hash of the position
+     * @param move  the best move found, or Move.NONE
+     * @param score the score, between -32768 and 32767
+     * @param depth the depth searched, between 0 and 255
+     * @param bound UPPER, LOWER or EXACT
+     */
+    public void store(long hash, int move, int score, int depth, int bound) {
+        int bucket = bucketIndex(hash);
+        int slot = bucket;
+
+        long deepest = table[bucket + 1];
+        boolean sameHash = (table[bucket] ^ deepest) == hash;
+        // Keep the first slot for the deepest result of the current search.
+        if (!sameHash && deepest != 0 && age(deepest) == age && depth(deepest) > depth) {
+            slot = bucket + ENTRY_LONGS;
+        }
+
+        // Keep the best move of an earlier search of the same position if none was found now.
+        long previous = table[slot + 1];
+        if (move == Move.NONE && (table[slot] ^ previous) == hash) {
+            move = move(previous);
+        }
+
+        long data = (move & 0xFFFFFFL)
+                | ((score & 0xFFFFL) << 24)
+                | ((long) depth << 40)
+                | ((long) bound << 48)
+                | ((long) age << 50);
+        table[slot] = hash ^ data;
+        table[slot + 1] = data;
+    }
+
+    /**
+     * Returns the index of the bucket for a hash, taken from the upper half of the hash.
+     *
+     * @param hash the hash of the position
+     * @return the index in the table of the first long of the bucket
+     */
+    private int bucketIndex(long hash) {
+        return ((int) (hash >>> 32) & bucketMask) * BUCKET_LONGS;
+    }
+
+    /**
+     * Returns the number of entries the table can hold.
+     *
+     * @return the capacity in entries
+     */
+    public int capacity() {
+        return table.length / ENTRY_LONGS;
+    }
+
+    /**
+     * Estimates how full the table is from a sample of its entries.
+     *
+     * @return the number of sampled entries in use per thousand
+     */
+    public int hashfull() {
+        int sample = Math.min(1000, capacity());
+        int used = 0;
+        for (int entry = 0; entry < sample; entry++) {
+            long data = table[entry * ENTRY_LONGS + 1];
+            if (data != 0 && age(data) == age) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    /**
+     * Returns the best move of packed data.
+     *
+     * @param data the packed data from probe
+     * @return the packed move, or Move.NONE
+     */
+    public static int move(long data) {
+        return (int) (data & 0xFFFFFF);
+    }
+
+    /**
+     * Returns the score of packed data.
+     *
+     * @param data the packed data from probe
+     * @return the score
+     */
+    public static int score(long data) {
+        return (short) (data >>> 24);
+    }
+
+    /**
+     * Returns the depth of packed data.
+     *
+     * @param data the packed data from probe
+     * @return the depth searched
+     */
+    public static int depth(long data) {
+        return (int) ((data >>> 40) & 0xFF);
+    }
+
+    /**
+     * Returns the bound of packed data.
+     *
+     * @param data the packed data from probe
+     * @return UPPER, LOWER or EXACT
+     */
+    public static int bound(long data) {
+        return (int) ((data >>> 48) & 0x3);
+    }
+
+    /**
+     * Returns the search age of packed data.
+     *
+     * @param data the packed data from probe
+     * @return the age of the search that stored the data
+     */
+    private static int age(long data) {
+        return (int) ((data >>> 50) & 0x3F);
+    }
+}
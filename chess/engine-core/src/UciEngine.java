@@ -0,0 +1,452 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A headless engine speaking a line-based protocol modelled on UCI over standard input
+ * and output, so that match software can run many engines without a display. It never
+ * loads AWT or Swing.
+ * <p>
+ * Moves are written in the 3D coordinate text of Move.toText: the level digit, column
+ * letter and rank of the origin cell followed by those of the target cell, for example
+ * "0e20e4". Otherwise the commands follow UCI:
+ * <ul>
+ *     <li>uci, isready, ucinewgame, quit;</li>
+ *     <li>setoption name Hash|Threads value N, setoption name Book value FILE, and
+ *     setoption name Tablebases value DIRECTORY;</li>
+ *     <li>position startpos|fen TEXT [moves ...], with the position text of PositionNotation;</li>
+ *     <li>go [depth N] [nodes N] [movetime N] [wtime N] [btime N] [winc N] [binc N] [movestogo N] [infinite];</li>
+ *     <li>stop.</li>
+ * </ul>
+ * The engine answers go with an info line per completed iteration, giving the depth,
+ * score, nodes, nodes per second, time, how full the hash table is and best move, and then a bestmove line, or
+ * "bestmove 0000" if there is no legal move. After go infinite the bestmove line waits
+ * for stop.
+ * <p>
+ * With an opening book set by the Book option, a position in the book is answered with
+ * a book move at once, without searching, except after go infinite. With the endgame
+ * tablebases of the directory set by the Tablebases option (see TablebaseGenerator), the
+ * search scores the positions found in them exactly.
+ */
+public class UciEngine {
+    // The name the engine reports.
+    private static final String NAME = "chess_oop 3D";
+    // The limits of the Hash option in megabytes.
+    private static final int MAX_HASH_MEGABYTES = 4096;
+    // The limit of the Threads option.
+    private static final int MAX_THREADS = 256;
+
+    // Where commands are read from.
+    private final BufferedReader in;
+    // Where responses are written to. Written from the reading thread and the search thread.
+    private final PrintStream out;
+    // Runs the searches, so that commands can be read while one runs.
+    private final ExecutorService searchThread = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "uci-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // The size of the transposition table in megabytes, and the number of search threads.
+    private int hashMegabytes = 64;
+    private int threads = 1;
+    // The search, created again when an option changes it.
+    private ParallelSearch search;
+    private TranspositionTable table;
+    // The opening book, or null, and the source of the random choice between its moves.
+    private OpeningBook book;
+    private final Random random = new Random();
+    // The endgame tablebases, or null.
+    private Tablebase tablebase;
+    // The position set by the last position command.
+    private Position position = Position.initial();
+    // The search in progress, or null.
+    private Future<?> running;
+    // Released by stop, for a go infinite search waiting to report its best move.
+    private volatile CountDownLatch stopSignal = new CountDownLatch(0);
+
+    /**
+     * Constructs an engine.
+     *
+     * @param in  the stream commands are read from
+     * @param out the stream responses are written to
+     */
+    public UciEngine(InputStream in, PrintStream out) {
+        this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII));
+        this.out = out;
+    }
+
+    /**
+     * Reads and runs commands until quit or the end of the input.
+     *
+     * @throws IOException if reading the input fails
+     */
+    public void run() throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            String[] words = line.trim().split("\\s+");
+            if (words[0].equals("quit")) {
+                break;
+            }
+            handle(words);
+        }
+        stopSearch();
+        if (search != null) {
+            search.shutdown();
+        }
+        searchThread.shutdownNow();
+    }
+
+    /**
+     * Runs one command. Unknown commands are ignored, as UCI requires.
+     *
+     * @param words the words of the command line
+     */
+    private void handle(String[] words) {
+        switch (words[0]) {
+            case "uci":
+                send("id name " + NAME);
+                send("id author chess_oop");
+                send("option name Hash type spin default 64 min 1 max " + MAX_HASH_MEGABYTES);
+                send("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+                send("option name Book type string default <empty>");
+                send("option name Tablebases type string default <empty>");
+                send("uciok");
+                break;
+            case "isready":
+                send("readyok");
+                break;
+            case "setoption":
+                stopSearch();
+                setOption(words);
+                break;
+            case "ucinewgame":
+                stopSearch();
+                if (table != null) {
+                    table.clear();
+                }
+                position = Position.initial();
+                break;
+            case "position":
+                stopSearch();
+                setPosition(words);
+                break;
+            case "go":
+                stopSearch();
+                go(words);
+                break;
+            case "stop":
+                stopSearch();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Sets the Hash, Threads, Book or Tablebases option. The search is created again on the next go
+     * if Hash or Threads changes.
+     *
+     * @param words the words of the command line
+     */
+    private void setOption(String[] words) {
+        String name = valueAfter(words, "name");
+        String value = valueAfter(words, "value");
+        if (name == null || value == null) {
+            return;
+        }
+        if (name.equalsIgnoreCase("Book")) {
+            setBook(value);
+            return;
+        }
+        if (name.equalsIgnoreCase("Tablebases")) {
+            setTablebase(value);
+            return;
+        }
+        try {
+            if (name.equalsIgnoreCase("Hash")) {
+                hashMegabytes = Math.max(1, Math.min(MAX_HASH_MEGABYTES, Integer.parseInt(value)));
+            } else if (name.equalsIgnoreCase("Threads")) {
+                threads = Math.max(1, Math.min(MAX_THREADS, Integer.parseInt(value)));
+            } else {
+                return;
+            }
+        } catch (NumberFormatException e) {
+            send("info string invalid value " + value + " for option " + name);
+            return;
+        }
+        if (search != null) {
+            search.shutdown();
+        }
+        search = null;
+        table = null;
+    }
+
+    /**
+     * Opens the opening book of the Book option, closing the last one.
+     *
+     * @param file the book file, or "&lt;empty&gt;" for no book
+     */
+    private void setBook(String file) {
+        try {
+            if (book != null) {
+                book.close();
+                book = null;
+            }
+            if (!file.equals("<empty>")) {
+                book = new OpeningBook(Paths.get(file));
+            }
+        } catch (IOException e) {
+            send("info string cannot open book " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Opens the tablebases of the Tablebases option, closing the last ones.
+     *
+     * @param directory the directory of the tables, or "&lt;empty&gt;" for none
+     */
+    private void setTablebase(String directory) {
+        try {
+            if (tablebase != null) {
+                tablebase.close();
+                tablebase = null;
+            }
+            if (!directory.equals("<empty>")) {
+                tablebase = new Tablebase(Paths.get(directory));
+            }
+        } catch (IOException e) {
+            send("info string cannot open tablebases " + directory + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sets up the position of a position command and plays its moves. The current
+     * position is only replaced if the whole command is valid.
+     *
+     * @param words the words of the command line
+     */
+    private void setPosition(String[] words) {
+        int index = 1;
+        Position next;
+        if (index < words.length && words[index].equals("startpos")) {
+            next = Position.initial();
+            index++;
+        } else if (index < words.length && words[index].equals("fen")) {
+            // The position text has spaces in it, so it runs up to the moves keyword.
+            StringBuilder text = new StringBuilder();
+            for (index++; index < words.length && !words[index].equals("moves"); index++) {
+                text.append(text.length() == 0 ? "" : " ").append(words[index]);
+            }
+            try {
+                next = PositionNotation.parse(text.toString());
+            } catch (IllegalArgumentException e) {
+                send("info string " + e.getMessage());
+                return;
+            }
+        } else {
+            send("info string unsupported position " + String.join(" ", words));
+            return;
+        }
+        if (index < words.length && words[index].equals("moves")) {
+            for (index++; index < words.length; index++) {
+                int move = Move.parse(next, words[index]);
+                if (move == Move.NONE) {
+                    send("info string illegal move " + words[index]);
+                    return;
+                }
+                next.makeMove(move);
+            }
+        }
+        position = next;
+    }
+
+    /**
+     * Starts a search of the current position on the search thread.
+     *
+     * @param words the words of the command line
+     */
+    private void go(String[] words) {
+        SearchLimits limits = new SearchLimits();
+        boolean infinite = false;
+        long whiteTime = 0;
+        long blackTime = 0;
+        long whiteIncrement = 0;
+        long blackIncrement = 0;
+        try {
+            for (int i = 1; i < words.length; i++) {
+                String value = i + 1 < words.length ? words[i + 1] : "0";
+                switch (words[i]) {
+                    case "depth":
+                        limits.setDepth(Integer.parseInt(value));
+                        break;
+                    case "nodes":
+                        limits.setNodes(Long.parseLong(value));
+                        break;
+                    case "movetime":
+                        limits.setMoveTime(Long.parseLong(value));
+                        break;
+                    case "wtime":
+                        whiteTime = Long.parseLong(value);
+                        break;
+                    case "btime":
+                        blackTime = Long.parseLong(value);
+                        break;
+                    case "winc":
+                        whiteIncrement = Long.parseLong(value);
+                        break;
+                    case "binc":
+                        blackIncrement = Long.parseLong(value);
+                        break;
+                    case "movestogo":
+                        limits.setMovesToGo(Integer.parseInt(value));
+                        break;
+                    case "infinite":
+                        infinite = true;
+                        continue;
+                    default:
+                        continue;
+                }
+                i++;
+            }
+        } catch (IllegalArgumentException e) {
+            send("info string invalid go command: " + e.getMessage());
+            return;
+        }
+        limits.setClock(Position.WHITE, whiteTime, whiteIncrement);
+        limits.setClock(Position.BLACK, blackTime, blackIncrement);
+
+        if (book != null && !infinite) {
+            int bookMove = book.probe(position, random);
+            if (bookMove != Move.NONE) {
+                send("info string book move");
+                send("bestmove " + Move.toText(bookMove));
+                return;
+            }
+        }
+
+        if (search == null) {
+            table = new TranspositionTable(hashMegabytes);
+            search = new ParallelSearch(table, threads);
+        }
+        ParallelSearch current = search;
+        current.setTablebase(tablebase);
+        current.clearStop();
+        Position root = position.copy();
+        CountDownLatch signal = new CountDownLatch(infinite ? 1 : 0);
+        stopSignal = signal;
+        long start = System.nanoTime();
+        TranspositionTable currentTable = table;
+        current.setListener((depth, score, bestMove, nodes)
+                -> reportIteration(depth, score, bestMove, nodes, currentTable.hashfull(), start));
+        running = searchThread.submit(() -> {
+            int bestMove = current.search(root, limits);
+            try {
+                signal.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            send("bestmove " + (bestMove == Move.NONE ? "0000" : Move.toText(bestMove)));
+        });
+    }
+
+    /**
+     * Writes the info line of a completed iteration.
+     *
+     * @param depth    the depth of the iteration
+     * @param score    the score for the side to move
+     * @param bestMove the best move of the iteration
+     * @param nodes    the number of positions visited so far
+     * @param hashfull the entries of the transposition table in use, per thousand
+     * @param start    the System.nanoTime the search started at
+     */
+    private void reportIteration(int depth, int score, int bestMove, long nodes, int hashfull, long start) {
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        String scoreText;
+        if (Math.abs(score) >= Search.TABLEBASE_WIN_MIN) {
+            // Mate and tablebase scores count plies to checkmate; UCI counts moves of the side
+            // to move, negative when it is mated.
+            int base = Math.abs(score) >= Search.MATE - Search.MAX_PLY ? Search.MATE : Search.TABLEBASE_WIN;
+            int moves = (base - Math.abs(score) + 1) / 2;
+            scoreText = "mate " + (score > 0 ? moves : -moves);
+        } else {
+            scoreText = "cp " + score;
+        }
+        send("info depth " + depth + " score " + scoreText + " nodes " + nodes
+                + " nps " + nodes * 1000 / elapsedMillis + " time " + elapsedMillis + " hashfull " + hashfull
+                + " pv " + Move.toText(bestMove));
+    }
+
+    /**
+     * Stops the search in progress, if any, and waits for it to report its best move.
+     * The stop request is cleared in go before the search is submitted, so it holds even
+     * if the search thread has not started yet.
+     */
+    private void stopSearch() {
+        if (running == null) {
+            return;
+        }
+        stopSignal.countDown();
+        search.stop();
+        try {
+            running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            send("info string search failed: " + e);
+        }
+        running = null;
+    }
+
+    /**
+     * Finds the words after a keyword of a command, up to the next keyword.
+     *
+     * @param words   the words of the command line
+     * @param keyword the keyword, "name" or "value"
+     * @return the words joined by spaces, or null if the keyword is missing
+     */
+    private static String valueAfter(String[] words, String keyword) {
+        for (int i = 0; i < words.length - 1; i++) {
+            if (words[i].equals(keyword)) {
+                StringBuilder value = new StringBuilder(words[i + 1]);
+                for (int j = i + 2; j < words.length && !words[j].equals("value"); j++) {
+                    value.append(' ').append(words[j]);
+                }
+                return value.toString();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Writes a line of output. Lines are written whole, even when the reading thread and
+     * the search thread write at once.
+     *
+     * @param line the line to write
+     */
+    private void send(String line) {
+        synchronized (out) {
+            out.println(line);
+            out.flush();
+        }
+    }
+
+    /**
+     * Runs the engine on standard input and output.
+     *
+     * @param args command line arguments, which are not used
+     * @throws IOException if reading standard input fails
+     */
+    public static void main(String[] args) throws IOException {
+        new UciEngine(System.in, System.out).run();
+    }
+}
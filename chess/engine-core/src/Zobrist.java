@@ -0,0 +1,79 @@
+/**
+ * Random 64-bit keys for Zobrist hashing of 3D positions. The hash of a position is
+ * the XOR of the key of every piece code on its cell, plus the side key when black
+ * is to move, so it can be updated with one XOR per change rather than recomputed.
+ * <p>
+ * The keys come from a fixed seed, so every process computes the same hash for the
+ * same position and hashes can be stored and compared across runs.
+ */
+public class Zobrist {
+    // The seed of the key generator. Changing it invalidates every stored hash.
+    private static final long SEED = 0x3D3D_C4E5_5B0A_12D7L;
+
+    // The key of each piece code on each cell, indexed by code * CELLS + cell. EMPTY has all zero keys.
+    private static final long[] PIECE_KEYS = new long[16 * Position.CELLS];
+    // The key added when black is to move.
+    private static final long SIDE_KEY;
+
+    static {
+        long state = SEED;
+        for (int piece = 1; piece < 16; piece++) {
+            for (int cell = 0; cell < Position.CELLS; cell++) {
+                state += 0x9E37_79B9_7F4A_7C15L;
+                PIECE_KEYS[piece * Position.CELLS + cell] = mix(state);
+            }
+        }
+        state += 0x9E37_79B9_7F4A_7C15L;
+        SIDE_KEY = mix(state);
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Scrambles a counter into a well distributed 64-bit value (the SplitMix64 finaliser).
+     *
+     * @param value the value to scramble
+     * @return the scrambled value
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58_476D_1CE4_E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D0_49BB_1331_11EBL;
+        return value ^ (value >>> 31);
+    }
+
+    /**
+     * Returns the key of a piece code on a cell.
+     *
+     * @param piece the piece code, where EMPTY has the key 0
+     * @param cell  the cell index
+     * @return the key
+     */
+    public static long piece(int piece, int cell) {
+        return PIECE_KEYS[piece * Position.CELLS + cell];
+    }
+
+    /**
+     * Returns the key added when black is to move.
+     *
+     * @return the side key
+     */
+    public static long side() {
+        return SIDE_KEY;
+    }
+
+    /**
+     * Computes the hash of a position from scratch. Positions keep their hash up to
+     * date themselves; this is for checking that incremental updates are correct.
+     *
+     * @param position the position to hash
+     * @return the hash of the position
+     */
+    public static long compute(Position position) {
+        long hash = position.getSideToMove() == Position.BLACK ? SIDE_KEY : 0;
+        for (int cell = 0; cell < Position.CELLS; cell++) {
+            hash ^= piece(position.get(cell), cell);
+        }
+        return hash;
+    }
+}
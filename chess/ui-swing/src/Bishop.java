@@ -0,0 +1,55 @@
+import java.util.List;
+import java.util.ArrayList;
+
+/**
+ * Represents a Bishop chess piece, which moves diagonally on the board.
+ */
+public class Bishop extends Piece {
+
+    /**
+     * Constructs a Bishop with the specified owner and piece type.
+     *
+     * @param owner the player that owns this piece
+     * @param piece the type or name of the piece
+     */
+    public Bishop(Player owner, String piece) {
+        super(owner, piece);
+    }
+
+    /**
+     * Returns the piece type of the bishop in the headless position model.
+     *
+     * @return the bishop piece type
+     */
+    @Override
+    public int getType() {
+        return Position.BISHOP;
+    }
+
+    /**
+     * Checks if moving the bishop to the specified destination square is a valid move.
+     * The bishop moves along the diagonals of its level, or along the 3D diagonals that change level, row and column together.
+     *
+     * @param destination The square to which the bishop is being moved.
+     * @param board       The chessboard on which the move is being made.
+     * @return true if the move is valid, false otherwise.
+     */
+    @Override
+    public boolean validMove(Square destination, Board board) {
+        return validSlidingMove(destination, board, Rays.BISHOP_FIRST, Rays.BISHOP_LAST);
+    }
+
+    /**
+     * Returns a list of all possible moves for the bishop piece.
+     *
+     * @param board the board on which the piece resides
+     * @return a list of all possible moves for the bishop piece
+     */
+    @Override
+    public List<Square> getPossibleMoves(Board board) {
+        List<Square> moves = new ArrayList<>();
+        addSlidingMoves(moves, board, Rays.BISHOP_FIRST, Rays.BISHOP_LAST);
+        return moves;
+    }
+
+}
@@ -0,0 +1,145 @@
+import javax.swing.JPanel;
+import java.util.List;
+
+/**
+ * Represents a game board consisting of a grid of squares.
+ * The board is a view of a headless Position, which holds the pieces the rules read.
+ * <p>
+ * The board keeps track of which squares are highlighted, so that changing the highlights
+ * only repaints the squares whose highlight changes rather than the whole board.
+ */
+public class Board extends JPanel {
+    // The 2D array representing the squares on the board.
+    private Square[][][] squares;
+    // The position rendered by the squares.
+    private Position position;
+    // The checks and pins of the position, found again for each legality test.
+    private final KingSafety kingSafety = new KingSafety();
+    // The cells of the highlighted squares, in the first highlightCount slots.
+    private final int[] highlightedCells = new int[Position.CELLS];
+    private int highlightCount;
+    // The cells to be highlighted, marked while the highlights change.
+    private final boolean[] toHighlight = new boolean[Position.CELLS];
+
+    /**
+     * Constructs a Board with a given MoveListener.
+     *
+     * @param listener the MoveListener that should be notified when a move is made
+     */
+    public Board(MoveListener listener) {
+        // Initialize a 3D array for 3 levels of 8x8 boards.
+        squares = new Square[3][8][8];
+        position = new Position();
+
+        for (int level = 0; level < 3; level++) {
+            for (int row = 0; row < 8; row++) {
+                for (int col = 0; col < 8; col++) {
+                    squares[level][row][col] = new Square(level, row, col);
+                    squares[level][row][col].addMouseListener(listener);
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrieves the square at the specified row and column.
+     *
+     * @param level the level index of the square
+     * @param row the row index of the square
+     * @param col the column index of the square
+     * @return the Square at the specified location
+     */
+    public Square getSquareAt(int level, int row, int col) {
+        if (level >= 0 && level < 3 && row >= 0 && row < 8 && col >= 0 && col < 8) {
+            return squares[level][row][col];
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves the square at the specified cell of the headless position.
+     *
+     * @param cell the cell index of the square
+     * @return the Square at the specified cell
+     */
+    public Square getSquareAt(int cell) {
+        return squares[Position.levelOf(cell)][Position.rowOf(cell)][Position.colOf(cell)];
+    }
+
+    /**
+     * Returns the headless position shown on the board.
+     *
+     * @return the position the squares render
+     */
+    public Position getPosition() {
+        return position;
+    }
+
+    /**
+     * Finds the checks and pins against the king of a side in the position shown.
+     * The result is valid until the position next changes.
+     *
+     * @param colour the side whose king is protected, WHITE or BLACK
+     * @return the king safety of the side
+     */
+    public KingSafety getKingSafety(int colour) {
+        kingSafety.compute(position, colour);
+        return kingSafety;
+    }
+
+    /**
+     * Gets the number of rows on the board.
+     *
+     * @return the number of rows
+     */
+    public int getNumberOfRows() {
+        return squares.length;
+    }
+
+    /**
+     * Gets the number of columns on the board.
+     *
+     * @return the number of columns
+     */
+    public int getNumberOfCols() {
+        return squares[0][0].length; }
+
+    /**
+     * Highlights a set of squares in place of the squares highlighted before. Only the
+     * squares whose highlight changes are repainted: a square highlighted both before
+     * and after is left alone.
+     *
+     * @param targets the squares to highlight
+     */
+    public void highlight(List<Square> targets) {
+        for (Square target : targets) {
+            toHighlight[target.getCell()] = true;
+        }
+        for (int i = 0; i < highlightCount; i++) {
+            int cell = highlightedCells[i];
+            if (!toHighlight[cell]) {
+                getSquareAt(cell).setActive(false);
+            }
+        }
+        highlightCount = 0;
+        for (Square target : targets) {
+            int cell = target.getCell();
+            if (toHighlight[cell]) { // Not a repeat of a square already added
+                toHighlight[cell] = false;
+                target.setActive(true);
+                highlightedCells[highlightCount++] = cell;
+            }
+        }
+    }
+
+    /**
+     * Removes every highlight, repainting only the squares that were highlighted.
+     */
+    public void clearHighlights() {
+        for (int i = 0; i < highlightCount; i++) {
+            getSquareAt(highlightedCells[i]).setActive(false);
+        }
+        highlightCount = 0;
+    }
+
+}
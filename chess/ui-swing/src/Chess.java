@@ -0,0 +1,399 @@
+import javax.swing.*;
+import java.awt.*;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The main class for a chess game that sets up the game board,
+ * players, and initializes the GUI.
+ */
+public class Chess {
+    /**
+     * Receives the result of a game when it ends.
+     */
+    public interface GameEndListener {
+        /**
+         * Called on the thread that made the last move, once the game has ended.
+         *
+         * @param state  the state the game ended in, one of the GameState constants
+         * @param result a description of the result, such as "Checkmate: white wins"
+         */
+        void gameEnded(int state, String result);
+    }
+
+    private JFrame frame;
+    private Board board;
+    private Player whitePlayer;
+    private Player blackPlayer;
+    private Player currentPlayer;
+    // The state of the game after the last move, one of the GameState constants.
+    private int state = GameState.ONGOING;
+    // Where the game is appended when it ends, or null. Set from the main thread, read on the event dispatch thread.
+    private volatile GameArchiveWriter archive;
+    // The file the game is appended to in notation when it ends, or null. Set like the archive.
+    private volatile Path notationFile;
+    // Told the result when the game ends, or null. Set like the archive.
+    private volatile GameEndListener gameEndListener;
+
+    /**
+     * Constructor for Chess class. Initializes players, board, and sets up the GUI.
+     */
+    public Chess() {
+        this(false, false, ComputerPlayer.DEFAULT_THREADS, SearchLimits.depth(ComputerPlayer.DEFAULT_DEPTH));
+    }
+
+    /**
+     * Constructor for Chess class with a choice of which sides the computer plays.
+     * Initializes players, board, and sets up the GUI.
+     *
+     * @param whiteComputer true if the computer plays white
+     * @param blackComputer true if the computer plays black
+     * @param threads       the number of threads each computer player searches with
+     * @param limits        the limits of each search of the computer players
+     */
+    public Chess(boolean whiteComputer, boolean blackComputer, int threads, SearchLimits limits) {
+        // Initialize players with their respective colors.
+        this.whitePlayer = whiteComputer ? createComputer(java.awt.Color.RED, threads, limits) : new Player(java.awt.Color.RED);
+        this.blackPlayer = blackComputer ? createComputer(java.awt.Color.BLUE, threads, limits) : new Player(java.awt.Color.BLUE);
+        // Initialize the chess board with a move listener.
+        this.board = new Board(new MoveListener(this));
+        // Set the current player to white to start the game.
+        this.currentPlayer = whitePlayer;
+        // Initialize the game pieces.
+        init();
+        // Set up the graphical user interface.
+        initGUI();
+        // Let the computer make the first move if it plays white.
+        requestComputerMove();
+    }
+
+    /**
+     * Creates a computer player with the default table size.
+     *
+     * @param colour  the color representing the player
+     * @param threads the number of threads the player searches with
+     * @param limits  the limits of each search
+     * @return the computer player
+     */
+    private static ComputerPlayer createComputer(java.awt.Color colour, int threads, SearchLimits limits) {
+        return new ComputerPlayer(colour, limits, ComputerPlayer.DEFAULT_TABLE_MEGABYTES, threads);
+    }
+
+    /**
+     * Initializes the Graphical User Interface for the chess game.
+     * No window is created when running without a display, but the board and its squares still work.
+     */
+    private void initGUI() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return;
+        }
+        frame = new JFrame("3D Chess OOP Game");
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+
+        JPanel boardsPanel = new JPanel(new GridLayout(1, 3)); // One row, three columns
+
+        // Create and add panels for each level
+        for (int level = 0; level < 3; level++) {
+            JPanel boardPanel = new JPanel(new GridLayout(8, 8));
+            boardPanel.setBorder(BorderFactory.createLineBorder(Color.BLUE, 2));
+
+            for (int row = 0; row < 8; row++) {
+                for (int col = 0; col < 8; col++) {
+                    Square square = board.getSquareAt(level, row, col);
+                    boardPanel.add(square);
+                }
+            }
+            boardsPanel.add(boardPanel);
+        }
+
+        frame.add(boardsPanel);
+        frame.pack();
+        frame.validate();
+        frame.repaint();
+        frame.setVisible(true);
+    }
+
+    /**
+     * Initializes the game pieces on the board.
+     */
+    public void init() {
+        initPieces();
+    }
+
+    /**
+     * Places the pieces in their initial positions on the board.
+     */
+    private void initPieces() {
+        Position start = Position.initial();
+        for (int cell = 0; cell < Position.CELLS; cell++) {
+            if (!start.isEmpty(cell)) {
+                setPiece(Position.levelOf(cell), Position.rowOf(cell), Position.colOf(cell), createPiece(start.get(cell)));
+            }
+        }
+    }
+
+    /**
+     * Creates the piece object shown on the board for a piece code of the position.
+     *
+     * @param code the piece code
+     * @return a new piece of the given type, owned by the player of the given colour
+     */
+    private Piece createPiece(byte code) {
+        Player owner = Position.colourOf(code) == Position.WHITE ? whitePlayer : blackPlayer;
+        String image = String.valueOf(Position.symbolOf(code));
+        switch (Position.typeOf(code)) {
+            case Position.PAWN:
+                return new Pawn(owner, image);
+            case Position.KNIGHT:
+                return new Knight(owner, image);
+            case Position.BISHOP:
+                return new Bishop(owner, image);
+            case Position.ROOK:
+                return new Rook(owner, image);
+            case Position.QUEEN:
+                return new Queen(owner, image);
+            default:
+                return new King(owner, image);
+        }
+    }
+
+    /**
+     * Sets a piece on a square and associates the square with the piece.
+     *
+     * @param level the level of the square
+     * @param row   the row of the square
+     * @param col   the column of the square
+     * @param piece the piece to set on the square
+     */
+    private void setPiece(int level, int row, int col, Piece piece) {
+        // Place the piece on the square at the given position.
+        board.getSquareAt(level,row, col).setPiece(piece);
+        // Set the piece's current square to the new position.
+        piece.setSquare(board.getSquareAt(level, row, col));
+        // Record the piece in the position the rules read.
+        board.getPosition().set(Position.cell(level, row, col), piece.getCode());
+    }
+
+    /**
+     * Returns the game board.
+     *
+     * @return the current game board
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Returns the current player.
+     *
+     * @return the player whose turn it is
+     */
+    public Player getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    /**
+     * Sets the archive the game is appended to when it ends.
+     *
+     * @param archive the archive, or null to keep no record
+     */
+    public void setArchive(GameArchiveWriter archive) {
+        this.archive = archive;
+    }
+
+    /**
+     * Sets the file the game is appended to in notation (see GameNotation) when it ends.
+     *
+     * @param notationFile the file, or null to write no notation
+     */
+    public void setNotationFile(Path notationFile) {
+        this.notationFile = notationFile;
+    }
+
+    /**
+     * Sets the listener told the result when the game ends, in addition to the dialog
+     * shown when there is a window.
+     *
+     * @param gameEndListener the listener, or null for none
+     */
+    public void setGameEndListener(GameEndListener gameEndListener) {
+        this.gameEndListener = gameEndListener;
+    }
+
+    /**
+     * Checks if the game has ended.
+     *
+     * @return true after checkmate, stalemate or a draw, false while the game goes on
+     */
+    public boolean isGameOver() {
+        return GameState.isOver(state);
+    }
+
+    /**
+     * Executes a move from one square to another.
+     *
+     * @param start the starting square of the move
+     * @param end   the ending square of the move
+     */
+    public void move(Square start, Square end) {
+        Piece move = start.getPiece();
+        end.setPiece(move);
+        start.setPiece(null);
+        // Update the piece's position.
+        move.setSquare(end);
+        // Apply the move to the position the rules read.
+        board.getPosition().move(start.getCell(), end.getCell());
+        // The two squares repainted themselves when their pieces were set, and nothing else changed.
+        swapCurrentPlayer();
+        state = GameState.of(board.getPosition());
+        if (isGameOver()) {
+            recordGame();
+            announceResult();
+        } else {
+            requestComputerMove();
+        }
+    }
+
+    /**
+     * Appends the finished game to the archive and the notation file, if there are any.
+     * The position holds every move of the game on its undo stack.
+     */
+    private void recordGame() {
+        Position position = board.getPosition();
+        int result = GameState.resultOf(position, state);
+        try {
+            if (archive != null) {
+                archive.append(position, result, state);
+                archive.flush();
+            }
+            if (notationFile != null) {
+                Map<String, String> tags = new LinkedHashMap<>();
+                tags.put("Event", "3D Chess OOP Game");
+                tags.put("Date", LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy.MM.dd")));
+                tags.put("White", whitePlayer instanceof ComputerPlayer ? "Computer" : "Human");
+                tags.put("Black", blackPlayer instanceof ComputerPlayer ? "Computer" : "Human");
+                tags.put("Termination", GameState.describe(state));
+                try (Writer out = Files.newBufferedWriter(notationFile, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    GameNotation.write(out, tags, position, result);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Shows the result of the game once it has ended, in a dialog if there is a window,
+     * and tells the game end listener.
+     */
+    private void announceResult() {
+        String result = GameState.describe(state);
+        if (state == GameState.CHECKMATE) {
+            // The player to move has been checkmated.
+            result += ": " + (currentPlayer.isWhite() ? "black" : "white") + " wins";
+        }
+        if (frame != null) {
+            JOptionPane.showMessageDialog(frame, result);
+        }
+        GameEndListener listener = gameEndListener;
+        if (listener != null) {
+            listener.gameEnded(state, result);
+        }
+    }
+
+    /**
+     * Asks the current player for a move if it is a computer player. The search runs
+     * in the background and the move is made on the event dispatch thread when it is found.
+     */
+    private void requestComputerMove() {
+        if (!(currentPlayer instanceof ComputerPlayer)) {
+            return;
+        }
+        ComputerPlayer player = (ComputerPlayer) currentPlayer;
+        Position position = board.getPosition().copy();
+        new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() {
+                return player.chooseMove(position);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    int move = get();
+                    if (move != Move.NONE && isStillPlayable(player, move)) {
+                        move(board.getSquareAt(Move.from(move)), board.getSquareAt(Move.to(move)));
+                    }
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Checks if a move a computer player searched for can still be made: the game goes on,
+     * the player is still to move, and the move is legal in the position on the board.
+     *
+     * @param player the computer player that searched for the move
+     * @param move   the packed move
+     * @return true if the move can be made, false if the board changed during the search
+     */
+    private boolean isStillPlayable(ComputerPlayer player, int move) {
+        Position position = board.getPosition();
+        return !isGameOver() && currentPlayer == player && MoveGenerator.isPseudoLegal(position, move)
+                && board.getKingSafety(position.getSideToMove()).isLegal(position, move);
+    }
+
+    /**
+     * Switches the current player from white to black, or black to white.
+     */
+    private void swapCurrentPlayer() {
+        if (currentPlayer == whitePlayer) {
+            currentPlayer = blackPlayer;
+        } else {
+            currentPlayer = whitePlayer;
+        }
+    }
+
+    /**
+     * Main method that starts the chess game.
+     * The first argument may be "white", "black" or "both" to let the computer play those sides,
+     * the second the number of threads each computer player searches with, and the third
+     * the time for each computer move in milliseconds, instead of searching to the default depth.
+     * The fourth may name a game archive to append the game to when it ends, or be "-" for
+     * none, and the fifth a file to append it to in notation.
+     *
+     * @param args command line arguments
+     * @throws IOException if the game archive cannot be opened
+     */
+    public static void main(String[] args) throws IOException {
+        String computer = args.length > 0 ? args[0] : "";
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : ComputerPlayer.DEFAULT_THREADS;
+        SearchLimits limits = args.length > 2 ? SearchLimits.moveTime(Long.parseLong(args[2]))
+                : SearchLimits.depth(ComputerPlayer.DEFAULT_DEPTH);
+        Chess chessGame = new Chess(computer.equals("white") || computer.equals("both"),
+                computer.equals("black") || computer.equals("both"), threads, limits);
+        if (args.length > 3 && !args[3].equals("-")) {
+            chessGame.setArchive(new GameArchiveWriter(Paths.get(args[3])));
+        }
+        if (args.length > 4) {
+            chessGame.setNotationFile(Paths.get(args[4]));
+        }
+        if (GraphicsEnvironment.isHeadless()) {
+            // There is no window to show the result in.
+            chessGame.setGameEndListener((state, result) -> System.out.println(result));
+        }
+        // Additional initialization or methods could be called here if needed.
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * A player whose moves are chosen by the search engine instead of by mouse clicks.
+ */
+public class ComputerPlayer extends Player {
+    // The default depth the engine searches to.
+    public static final int DEFAULT_DEPTH = 3;
+    // The default size of the transposition table in megabytes.
+    public static final int DEFAULT_TABLE_MEGABYTES = 64;
+    // The default number of search threads.
+    public static final int DEFAULT_THREADS = 1;
+
+    // The limits of the search for each move.
+    private final SearchLimits limits;
+    // The engine used to choose moves, reused from move to move.
+    private final ParallelSearch search;
+
+    /**
+     * Constructs a computer player with the default search depth, table size and thread count.
+     *
+     * @param colour The color representing the player.
+     */
+    public ComputerPlayer(java.awt.Color colour) {
+        this(colour, DEFAULT_DEPTH, DEFAULT_TABLE_MEGABYTES, DEFAULT_THREADS);
+    }
+
+    /**
+     * Constructs a computer player.
+     *
+     * @param colour          The color representing the player.
+     * @param depth           The depth the engine searches to.
+     * @param tableMegabytes  The size of the transposition table in megabytes.
+     * @param threads         The number of threads the engine searches with.
+     */
+    public ComputerPlayer(java.awt.Color colour, int depth, int tableMegabytes, int threads) {
+        this(colour, SearchLimits.depth(depth), tableMegabytes, threads);
+    }
+
+    /**
+     * Constructs a computer player whose searches are limited by time, nodes or depth.
+     *
+     * @param colour          The color representing the player.
+     * @param limits          The limits of the search for each move.
+     * @param tableMegabytes  The size of the transposition table in megabytes.
+     * @param threads         The number of threads the engine searches with.
+     */
+    public ComputerPlayer(java.awt.Color colour, SearchLimits limits, int tableMegabytes, int threads) {
+        super(colour);
+        this.limits = limits;
+        this.search = new ParallelSearch(new TranspositionTable(tableMegabytes), threads);
+    }
+
+    /**
+     * Chooses the move to play in a position. This may take a while, so it should not be
+     * called on the Swing event dispatch thread.
+     *
+     * @param position the position to move in, with this player to move
+     * @return the packed move, or Move.NONE if there is no move to play
+     */
+    public int chooseMove(Position position) {
+        search.clearStop();
+        return search.search(position, limits);
+    }
+}
@@ -0,0 +1,71 @@
+import java.util.List;
+import java.util.ArrayList;
+
+/**
+ * Represents the King piece in a game of chess.
+ */
+public class King extends Piece {
+
+    /**
+     * Constructs a King piece.
+     *
+     * @param owner the player who owns the piece
+     * @param piece the textual representation of the piece
+     */
+    public King(Player owner, String piece) {
+        super(owner, piece);
+    }
+
+    /**
+     * Returns the piece type of the King in the headless position model.
+     *
+     * @return the King piece type
+     */
+    @Override
+    public int getType() {
+        return Position.KING;
+    }
+
+    /**
+     * Checks if a move to a specified square is valid for the King piece.
+     *
+     * @param destination the square to move to
+     * @param board       the board on which the move is to be made
+     * @return true if the move is valid, false otherwise
+     */
+    @Override
+    public boolean validMove(Square destination, Board board) {
+        byte destPiece = board.getPosition().get(destination.getCell());
+        if (isFriendly(destPiece)) {
+            return false; // Can't take pieces of the same color
+        }
+
+        // The move is valid if the destination is a single step in any of the 26 directions.
+        return Attacks.kingAttacks(this.getSquare().getCell(), destination.getCell());
+    }
+
+    /**
+     * Gets a list of all possible moves for the King piece.
+     *
+     * @param board the board on which the piece resides
+     * @return a list of all possible moves for the King piece
+     */
+    @Override
+    public List<Square> getPossibleMoves(Board board) {
+        List<Square> moves = new ArrayList<>();
+        Position position = board.getPosition();
+        int start = getSquare().getCell();
+
+        for (int level = 0; level < Position.LEVELS; level++) {
+            // Every attacked cell not holding a piece of the same color is a move.
+            long targets = Attacks.king(start, level) & ~position.occupancy(getOwner().getSide(), level);
+            while (targets != 0) {
+                moves.add(board.getSquareAt((level << 6) | Long.numberOfTrailingZeros(targets)));
+                targets &= targets - 1;
+            }
+        }
+
+        return moves;
+    }
+
+}
@@ -0,0 +1,71 @@
+import java.util.List;
+import java.util.ArrayList;
+
+/**
+ * Represents the Knight piece in a game of chess.
+ */
+public class Knight extends Piece {
+
+    /**
+     * Constructs a Knight piece.
+     *
+     * @param owner the player who owns the piece
+     * @param piece the textual representation of the piece
+     */
+    public Knight(Player owner, String piece) {
+        super(owner, piece);
+    }
+
+    /**
+     * Returns the piece type of the Knight in the headless position model.
+     *
+     * @return the Knight piece type
+     */
+    @Override
+    public int getType() {
+        return Position.KNIGHT;
+    }
+
+    /**
+     * Checks if a move to a specified square is valid for the Knight piece.
+     *
+     * @param destination the square to move to
+     * @param board       the board on which the move is to be made
+     * @return true if the move is valid, false otherwise
+     */
+    @Override
+    public boolean validMove(Square destination, Board board) {
+        byte destPiece = board.getPosition().get(destination.getCell());
+        if (isFriendly(destPiece)) {
+            return false; // Can't take pieces of the same color
+        }
+
+        // The move is valid if the destination is an L shaped move in 3D space.
+        return Attacks.knightAttacks(this.getSquare().getCell(), destination.getCell());
+    }
+
+    /**
+     * Gets a list of all possible moves for the Knight piece.
+     *
+     * @param board the board on which the piece resides
+     * @return a list of all possible moves for the Knight piece
+     */
+    @Override
+    public List<Square> getPossibleMoves(Board board) {
+        List<Square> moves = new ArrayList<>();
+        Position position = board.getPosition();
+        int start = getSquare().getCell();
+
+        for (int level = 0; level < Position.LEVELS; level++) {
+            // Every attacked cell not holding a piece of the same color is a move.
+            long targets = Attacks.knight(start, level) & ~position.occupancy(getOwner().getSide(), level);
+            while (targets != 0) {
+                moves.add(board.getSquareAt((level << 6) | Long.numberOfTrailingZeros(targets)));
+                targets &= targets - 1;
+            }
+        }
+
+        return moves;
+    }
+
+}
@@ -0,0 +1,64 @@
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+
+/**
+ * A mouse listener that handles mouse clicks on squares of the chess board.
+ * It determines the start and end of a move based on player interaction.
+ */
+public class MoveListener extends MouseAdapter {
+    private Chess game;
+    private Square startSquare;
+
+    /**
+     * Constructs a MoveListener.
+     *
+     * @param game the instance of the Chess game that this listener is a part of
+     */
+    public MoveListener(Chess game) {
+        this.game = game;
+    }
+
+    /**
+     * Handles mouse click events on the chess board squares.
+     *
+     * @param e the MouseEvent object that contains details about the mouse click
+     */
+    @Override
+    public void mouseClicked(MouseEvent e) {
+        if (game.isGameOver()) {
+            return; // No more moves once the game has ended
+        }
+        if (game.getCurrentPlayer() instanceof ComputerPlayer) {
+            return; // The computer is choosing its move
+        }
+        Square clickedSquare = (Square) e.getSource();
+        Board board = game.getBoard();
+
+        if (startSquare != null && startSquare.getPiece().isLegalMove(clickedSquare, board)) {
+            game.move(startSquare, clickedSquare);
+            board.clearHighlights(); // Clear all highlights after the move
+            startSquare = null;
+            return;
+        }
+        if (clickedSquare.getPiece() != null && clickedSquare.getPiece().getOwner() == game.getCurrentPlayer()) {
+            // Select the piece, moving the highlights straight from the moves of any piece selected before
+            startSquare = clickedSquare;
+            highlightPossibleMoves(startSquare);
+        } else {
+            board.clearHighlights(); // Clear all highlights if the move is not valid
+            startSquare = null;
+        }
+    }
+
+    /**
+     * Highlights the possible moves for a piece on a square, in place of the highlights
+     * shown before. Only the squares whose highlight changes are repainted.
+     *
+     * @param square the square containing the piece
+     */
+    private void highlightPossibleMoves(Square square) {
+        List<Square> possibleMoves = square.getPiece().getLegalMoves(game.getBoard());
+        game.getBoard().highlight(possibleMoves);
+    }
+}
@@ -18,6 +18,16 @@ public class Pawn extends Piece {
         super(owner, piece);
     }
 
+    /**
+     * Returns the piece type of the pawn in the headless position model.
+     *
+     * @return the pawn piece type
+     */
+    @Override
+    public int getType() {
+        return Position.PAWN;
+    }
+
     /**
      * Determines if the pawn can legally move to a specified destination square.
      *
@@ -41,8 +51,8 @@ public class Pawn extends Piece {
         int direction = this.getOwner().isWhite() ? -1 : 1;
         int levelDirection = destLevel - startLevel;
 
-        Piece destPiece = destination.getPiece();
-        if (destPiece != null && destPiece.getOwner().equals(this.getOwner())) {
+        byte destPiece = board.getPosition().get(destination.getCell());
+        if (isFriendly(destPiece)) {
             return false; // Can't take pieces of the same color
         }
 
@@ -57,32 +67,26 @@ public class Pawn extends Piece {
         }
 
         // A pawn moves straight forward one square on the same level.
-        if (levelDirection == 0 && startCol == destCol && destRow == startRow + direction && destination.getPiece() == null) {
+        if (levelDirection == 0 && startCol == destCol && destRow == startRow + direction && destPiece == Position.EMPTY) {
             return true;
         }
 
         // A pawn moves straight forward one square, advancing to the next level.
-        if (Math.abs(levelDirection) == 1 && startCol == destCol && destRow == startRow && destination.getPiece() == null) {
+        if (Math.abs(levelDirection) == 1 && startCol == destCol && destRow == startRow && destPiece == Position.EMPTY) {
             return true;
         }
 
         // On its first move, a pawn can move two squares forward on the same level.
         if (levelDirection == 0 && startCol == destCol && isFirstMove(startRow) &&
-                destRow == startRow + 2 * direction && destination.getPiece() == null &&
-                board.getSquareAt(startLevel, startRow + direction, startCol).getPiece() == null) {
-            return true;
-        }
-
-        // On its first move, a pawn can move to the top board in the same column.
-        if (isFirstMove(startRow) && destLevel == (this.getOwner().isWhite() ? 2 : 0) && destCol == startCol &&
-                destRow == (this.getOwner().isWhite() ? 4 : 3) && destination.getPiece() == null) {
+                destRow == startRow + 2 * direction && destPiece == Position.EMPTY &&
+                board.getPosition().isEmpty(Position.cell(startLevel, startRow + direction, startCol))) {
             return true;
         }
 
         // Pawns capture diagonally, one square forward on the same level or advancing to the next level.
         if (Math.abs(startCol - destCol) == 1 && ((destRow == startRow + direction && levelDirection == 0) ||
                 (destRow == startRow && Math.abs(levelDirection) == 1))) {
-            if (destination.getPiece() != null && destination.getPiece().getOwner() != this.getOwner()) {
+            if (isEnemy(destPiece)) {
                 return true;
             }
         }
@@ -109,37 +113,46 @@ public class Pawn extends Piece {
     @Override
     public List<Square> getPossibleMoves(Board board) {
         List<Square> moves = new ArrayList<>();
-        int startLevel = getSquare().getLevel();
-        int startRow = getSquare().getRow();
-        int startCol = getSquare().getCol();
-
-        // Highlight moves only for changing to the next adjacent level
-        if (startLevel == 0 || startLevel == 2) {
-            int newLevel = startLevel == 0 ? 1 : 1; // Move to the middle level
-            addMoveIfValid(moves, board, newLevel, startRow, startCol);
+        Position position = board.getPosition();
+        int start = getSquare().getCell();
+        int side = getOwner().getSide();
+
+        for (int level = 0; level < Position.LEVELS; level++) {
+            // A pawn captures the enemy pieces on the cells it attacks.
+            long targets = Attacks.pawn(side, start, level) & position.occupancy(side ^ 1, level);
+            while (targets != 0) {
+                moves.add(board.getSquareAt((level << 6) | Long.numberOfTrailingZeros(targets)));
+                targets &= targets - 1;
+            }
         }
 
-        return moves;
-    }
-
+        int level = getSquare().getLevel();
+        int row = getSquare().getRow();
+        int col = getSquare().getCol();
+        int direction = getOwner().isWhite() ? -1 : 1;
+
+        // A pawn steps forward onto an empty cell, and two cells on its first move.
+        int forwardRow = row + direction;
+        if (forwardRow >= 0 && forwardRow < Position.ROWS) {
+            int forward = Position.cell(level, forwardRow, col);
+            if (position.isEmpty(forward)) {
+                moves.add(board.getSquareAt(forward));
+                int doubleStep = Position.cell(level, row + 2 * direction, col);
+                if (isFirstMove(row) && position.isEmpty(doubleStep)) {
+                    moves.add(board.getSquareAt(doubleStep));
+                }
+            }
+        }
 
-    /**
-     * Adds a move to the list of moves if the move is valid.
-     *
-     * @param moves the list of moves
-     * @param board the board on which the piece resides
-     * @param level the level of the move
-     * @param row the row of the move
-     * @param col the column of the move
-     * @return true if the move is valid, false otherwise
-     */
-    private void addMoveIfValid(List<Square> moves, Board board, int level, int row, int col) {
-        if (row >= 0 && row < 8 && col >= 0 && col < 8 && level >= 0 && level < 3) {
-            Square possibleMove = board.getSquareAt(level, row, col);
-            if (possibleMove.getPiece() == null) {
-                moves.add(possibleMove);
+        // From the bottom or top level, a pawn moves to the empty cell above or below it on the middle level.
+        if (level != 1) {
+            int middle = Position.cell(1, row, col);
+            if (position.isEmpty(middle)) {
+                moves.add(board.getSquareAt(middle));
             }
         }
+
+        return moves;
     }
 
 }
@@ -0,0 +1,206 @@
+import java.util.List;
+
+/**
+ * The abstract class Piece serves as a template for all the chess pieces.
+ * It contains the common attributes and methods that all chess pieces share.
+ */
+public abstract class Piece {
+    private String image;
+    private Player owner;
+    private Square square;
+
+    /**
+     * Constructs a Piece object with an owner and image identifier.
+     *
+     * @param owner The player who owns the piece.
+     * @param image A string representing the image or identifier of the piece.
+     */
+    public Piece(Player owner, String image) {
+        this.owner = owner;
+        this.image = image;
+    }
+
+    /**
+     * Gets the image identifier of the piece.
+     *
+     * @return A string representing the image or identifier of the piece.
+     */
+    public String getImage() {
+        return image;
+    }
+
+    /**
+     * Gets the owner of the piece.
+     *
+     * @return The Player object representing the owner of the piece.
+     */
+    public Player getOwner() {
+        return owner;
+    }
+
+    /**
+     * Sets the square where the piece is placed.
+     *
+     * @param square The square to place the piece on.
+     */
+    public void setSquare(Square square) {
+        this.square = square;
+    }
+
+    /**
+     * Gets the current square where the piece is placed.
+     *
+     * @return The square where the piece is currently placed.
+     */
+    public Square getSquare() {
+        return square;
+    }
+
+    /**
+     * Abstract method to get the type of the piece in the headless position model.
+     * This method must be implemented by each specific piece type.
+     *
+     * @return the piece type, one of the type constants in Position
+     */
+    public abstract int getType();
+
+    /**
+     * Gets the code of the piece in the headless position model, combining its type and colour.
+     *
+     * @return the piece code
+     */
+    public byte getCode() {
+        return Position.piece(getType(), owner.getSide());
+    }
+
+    /**
+     * Checks if a piece code from the position belongs to the owner of this piece.
+     *
+     * @param code the piece code to check
+     * @return true if the code is a piece of the same colour, false otherwise
+     */
+    protected boolean isFriendly(byte code) {
+        return code != Position.EMPTY && Position.colourOf(code) == owner.getSide();
+    }
+
+    /**
+     * Checks if a piece code from the position belongs to the opponent of this piece.
+     *
+     * @param code the piece code to check
+     * @return true if the code is a piece of the other colour, false otherwise
+     */
+    protected boolean isEnemy(byte code) {
+        return code != Position.EMPTY && Position.colourOf(code) != owner.getSide();
+    }
+
+    /**
+     * Checks if a sliding move along one of a range of ray directions is valid.
+     * The destination must lie on one of the rays and every square before it must be empty.
+     *
+     * @param destination    the square to which the piece is attempting to move
+     * @param board          the board on which the piece is placed
+     * @param firstDirection the first ray direction the piece may use
+     * @param lastDirection  the end of the range of ray directions, exclusive
+     * @return true if the move is valid, false otherwise
+     */
+    protected boolean validSlidingMove(Square destination, Board board, int firstDirection, int lastDirection) {
+        Position position = board.getPosition();
+        int start = square.getCell();
+        int dest = destination.getCell();
+
+        if (isFriendly(position.get(dest))) {
+            return false; // Can't take pieces of the same color
+        }
+
+        int direction = Rays.direction(start, dest);
+        return direction >= firstDirection && direction < lastDirection
+                && Rays.isPathClear(position, start, dest, direction);
+    }
+
+    /**
+     * Adds the sliding moves along a range of ray directions to a list of moves.
+     * Each ray is walked once, up to and including the first piece on it if that piece can be captured.
+     *
+     * @param moves          the list of moves to add to
+     * @param board          the board on which the piece is placed
+     * @param firstDirection the first ray direction the piece may use
+     * @param lastDirection  the end of the range of ray directions, exclusive
+     */
+    protected void addSlidingMoves(List<Square> moves, Board board, int firstDirection, int lastDirection) {
+        Position position = board.getPosition();
+        int start = square.getCell();
+
+        for (int direction = firstDirection; direction < lastDirection; direction++) {
+            int length = Rays.length(start, direction);
+            for (int index = 0; index < length; index++) {
+                int target = Rays.target(start, direction, index);
+                byte piece = position.get(target);
+                if (!isFriendly(piece)) {
+                    moves.add(board.getSquareAt(target));
+                }
+                if (piece != Position.EMPTY) {
+                    break; // The ray is blocked beyond the first piece
+                }
+            }
+        }
+    }
+
+    /**
+     * Abstract method to determine if moving the piece to a given destination is a valid move.
+     * This method must be implemented by each specific piece type.
+     *
+     * @param destination The square to which the piece is attempting to move.
+     * @param board       The board on which the piece is placed.
+     * @return true if the move is valid, false otherwise.
+     */
+    public abstract boolean validMove(Square destination, Board board);
+
+    /**
+     * Abstract method to get a list of all possible moves for the piece.
+     * This method must be implemented by each specific piece type.
+     *
+     * @param board The board on which the piece is placed.
+     * @return A list of all possible moves for the piece.
+     */
+    public abstract List<Square> getPossibleMoves(Board board);
+
+    /**
+     * Determines if moving the piece to a given destination is legal: the move must be valid
+     * for the piece and must not leave the king of its owner attacked.
+     *
+     * @param destination The square to which the piece is attempting to move.
+     * @param board       The board on which the piece is placed.
+     * @return true if the move is legal, false otherwise.
+     */
+    public boolean isLegalMove(Square destination, Board board) {
+        return validMove(destination, board) && leavesKingSafe(destination, board, board.getKingSafety(owner.getSide()));
+    }
+
+    /**
+     * Gets a list of the possible moves of the piece that do not leave the king of its owner attacked.
+     *
+     * @param board The board on which the piece is placed.
+     * @return A list of all legal moves for the piece.
+     */
+    public List<Square> getLegalMoves(Board board) {
+        KingSafety safety = board.getKingSafety(owner.getSide());
+        List<Square> moves = getPossibleMoves(board);
+        moves.removeIf(destination -> !leavesKingSafe(destination, board, safety));
+        return moves;
+    }
+
+    /**
+     * Checks if a move of the piece, valid for its type, leaves the king of its owner safe.
+     *
+     * @param destination the square to which the piece moves
+     * @param board       the board on which the piece is placed
+     * @param safety      the king safety of the owner in the position of the board
+     * @return true if the king is not attacked after the move, false otherwise
+     */
+    private boolean leavesKingSafe(Square destination, Board board, KingSafety safety) {
+        Position position = board.getPosition();
+        int to = destination.getCell();
+        return safety.isLegal(position, Move.of(square.getCell(), to, getCode(), position.get(to)));
+    }
+
+}
@@ -25,4 +25,13 @@ public class Player {
     public boolean isWhite() {
         return this.colour.equals(WHITE_COLOR);
     }
+
+    /**
+     * Returns the side this player controls in the headless position model.
+     *
+     * @return Position.WHITE for the white player, Position.BLACK otherwise
+     */
+    public int getSide() {
+        return isWhite() ? Position.WHITE : Position.BLACK;
+    }
 }
@@ -0,0 +1,55 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a Queen piece on a chessboard, extending the Piece class.
+ */
+public class Queen extends Piece {
+
+    /**
+     * Constructs a new Queen piece with the specified owner and name.
+     *
+     * @param owner The player who owns the piece.
+     * @param piece The name of the piece, typically a single character string.
+     */
+    public Queen(Player owner, String piece) {
+        super(owner, piece);
+    }
+
+    /**
+     * Returns the piece type of the queen in the headless position model.
+     *
+     * @return the queen piece type
+     */
+    @Override
+    public int getType() {
+        return Position.QUEEN;
+    }
+
+    /**
+     * Checks if moving the queen to the specified destination square is a valid move.
+     * The queen moves along any of the 26 straight or diagonal lines through its square.
+     *
+     * @param destination The square to which the queen is being moved.
+     * @param board       The chessboard on which the move is being made.
+     * @return true if the move is valid, false otherwise.
+     */
+    @Override
+    public boolean validMove(Square destination, Board board) {
+        return validSlidingMove(destination, board, Rays.QUEEN_FIRST, Rays.QUEEN_LAST);
+    }
+
+    /**
+     * Returns a list of all possible moves for the queen piece.
+     *
+     * @param board the board on which the piece resides
+     * @return a list of all possible moves for the queen piece
+     */
+    @Override
+    public List<Square> getPossibleMoves(Board board) {
+        List<Square> moves = new ArrayList<>();
+        addSlidingMoves(moves, board, Rays.QUEEN_FIRST, Rays.QUEEN_LAST);
+        return moves;
+    }
+
+}
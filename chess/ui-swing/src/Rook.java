@@ -0,0 +1,55 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a Rook piece on a chessboard, extending the Piece class.
+ */
+public class Rook extends Piece {
+
+    /**
+     * Constructs a new Rook piece with the specified owner and name.
+     *
+     * @param owner The player who owns the piece.
+     * @param piece The name of the piece, typically a single character string.
+     */
+    public Rook(Player owner, String piece) {
+        super(owner, piece);
+    }
+
+    /**
+     * Returns the piece type of the rook in the headless position model.
+     *
+     * @return the rook piece type
+     */
+    @Override
+    public int getType() {
+        return Position.ROOK;
+    }
+
+    /**
+     * Checks if moving the rook to the specified destination square is a valid move.
+     * The rook moves along the 6 straight lines through its square: within its row or column, or straight up and down across levels.
+     *
+     * @param destination The square to which the rook is being moved.
+     * @param board       The chessboard on which the move is being made.
+     * @return true if the move is valid, false otherwise.
+     */
+    @Override
+    public boolean validMove(Square destination, Board board) {
+        return validSlidingMove(destination, board, Rays.ROOK_FIRST, Rays.ROOK_LAST);
+    }
+
+    /**
+     * Returns a list of all possible moves for the rook piece.
+     *
+     * @param board the board on which the piece resides
+     * @return a list of all possible moves for the rook piece
+     */
+    @Override
+    public List<Square> getPossibleMoves(Board board) {
+        List<Square> moves = new ArrayList<>();
+        addSlidingMoves(moves, board, Rays.ROOK_FIRST, Rays.ROOK_LAST);
+        return moves;
+    }
+
+}
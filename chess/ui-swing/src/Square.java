@@ -45,11 +45,14 @@ public class Square extends JPanel {
     }
 
     /**
-     * Sets the active state of the square and triggers a repaint.
+     * Sets the active state of the square and triggers a repaint if the state changes.
      *
      * @param active Whether the square is active.
      */
     public void setActive(boolean active) {
+        if (isActive == active) {
+            return; // Nothing to repaint
+        }
         this.isActive = active;
         repaint(); // update the visual state of the square
     }
@@ -137,11 +140,23 @@ public class Square extends JPanel {
     }
 
     /**
-     * Sets the piece on the square.
+     * Returns the index of the square in the headless position model.
+     *
+     * @return the cell index of the square
+     */
+    public int getCell() {
+        return Position.cell(level, row, col);
+    }
+
+    /**
+     * Sets the piece on the square, and triggers a repaint if the piece changes.
      *
      * @param piece the piece to set on the square
      */
     public void setPiece(Piece piece) {
+        if (this.piece == piece) {
+            return; // Nothing to repaint
+        }
         this.piece = piece;
         repaint();
     }